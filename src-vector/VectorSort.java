@@ -0,0 +1,613 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * <br>Vector API kernels behind {@link UsesSorter.Sorter.PrimitiveSort#vectorSort(int[])} and 
+ * {@link UsesSorter.Sorter.PrimitiveSort#vectorMergeSort(int[])}.  Kept out of src because 
+ * jdk.incubator.vector has to be added at both compile and run time:
+ * <br>
+ * <br>javac -d out src/*.java
+ * <br>javac --add-modules jdk.incubator.vector -cp out -d out src-vector/VectorSort.java
+ * <br>java --add-modules jdk.incubator.vector -cp out Project_01 --primitive
+ * <br>
+ * <br>Without this class, or without the module at run time, PrimitiveSort falls back to its scalar 
+ * branchless engine.
+ * <br>
+ * <br>{@link #sort} is the quick sort of PrimitiveSort with a vector partition: each vector of 
+ * elements is compared with the pivot, and the resulting lane mask picks a permutation from a table 
+ * that packs the lanes below the pivot to the front.  The packed vector is stored at the low cursor in 
+ * place and its complement at the high cursor in a spill buffer, and each cursor advances by its lane 
+ * count.  {@link #mergeSort} sorts blocks of two vectors in registers with a bitonic network of 
+ * min / max / blend steps, then merges runs bottom up one vector at a time: the smaller of the 
+ * two run heads chooses which run supplies the next vector, a bitonic merge of that vector with the 
+ * carried one emits the lower half and carries the upper.
+ * <br>
+ * <br>Ints use 256 bit vectors, so the permutation table has 2^8 entries; longs use 512 bit vectors 
+ * where the hardware has them and 256 bit otherwise.  {@link #available()} is false when the preferred 
+ * species is narrower than 256 bits, in which case the vector code would be slower than scalar.
+ * 
+ * @author Alex Feaser
+ */
+public final class VectorSort {
+	private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_256;
+	private static final VectorSpecies<Long> LONGS = (LongVector.SPECIES_PREFERRED.vectorBitSize() >= 512) 
+			? LongVector.SPECIES_512 : LongVector.SPECIES_256;
+	private static final int IW = INTS.length(), LW = LONGS.length();
+	private static final int CUTOFF = UsesSorter.Sorter.SmallSort.INSERTION_MAX;
+	
+	private static final int[] INT_PACK = pack(IW);
+	private static final long[] LONG_PACK = widen(pack(LW));
+	private static final int[] INT_REVERSE = reverse(IW);
+	private static final long[] LONG_REVERSE = widen(reverse(LW));
+	private static final int[] INT_SORT_PARTNERS = partners(IW, false);
+	private static final long[] LONG_SORT_PARTNERS = widen(partners(LW, false));
+	private static final boolean[] INT_SORT_MAX = takesMax(IW, false);
+	private static final boolean[] LONG_SORT_MAX = takesMax(LW, false);
+	private static final int[] INT_MERGE_PARTNERS = partners(IW, true);
+	private static final long[] LONG_MERGE_PARTNERS = widen(partners(LW, true));
+	private static final boolean[] INT_MERGE_MAX = takesMax(IW, true);
+	private static final boolean[] LONG_MERGE_MAX = takesMax(LW, true);
+	
+	private VectorSort() {}
+	
+	/**
+	 * @return whether the vector kernels are expected to beat the scalar ones on this host
+	 */
+	public static boolean available() {
+		return IntVector.SPECIES_PREFERRED.vectorBitSize() >= 256;
+	}
+	
+	/**
+	 * @return the vector shapes in use, e.g. "int x 8, long x 8"
+	 */
+	public static String shape() {
+		return String.format("int x %d, long x %d", IW, LW);
+	}
+	
+	/**
+	 * Quick sort argument array
+	 * 
+	 * @param a
+	 */
+	public static void sort(int[] a) {
+		if (a.length <= CUTOFF) {
+			UsesSorter.Sorter.SmallSort.sort(a, 0, a.length);
+			return;
+		}
+		quickSort(a, 0, a.length, new int[a.length + IW], depthLimit(a.length));
+	}
+	
+	/**
+	 * Quick sort argument array
+	 * 
+	 * @param a
+	 */
+	public static void sort(long[] a) {
+		if (a.length <= CUTOFF) {
+			UsesSorter.Sorter.SmallSort.sort(a, 0, a.length);
+			return;
+		}
+		quickSort(a, 0, a.length, new long[a.length + LW], depthLimit(a.length));
+	}
+	
+	/**
+	 * Merge sort argument array
+	 * 
+	 * @param a
+	 */
+	public static void mergeSort(int[] a) {
+		mergeSort(a, 0, a.length, new int[a.length]);
+	}
+	
+	/**
+	 * Merge sort argument array
+	 * 
+	 * @param a
+	 */
+	public static void mergeSort(long[] a) {
+		mergeSort(a, 0, a.length, new long[a.length]);
+	}
+	
+	/**
+	 * Recursion depth after which quick sort hands a range to merge sort
+	 * 
+	 * @param n
+	 * @return
+	 */
+	private static int depthLimit(int n) {
+		return (32 - Integer.numberOfLeadingZeros(n)) << 1;
+	}
+	
+	/**
+	 * Quick sort indices lo (inclusive) to hi (exclusive), recursing into the smaller side
+	 * 
+	 * @param a
+	 * @param lo
+	 * @param hi
+	 * @param buf scratch space of at least hi - lo plus one vector
+	 * @param depth
+	 */
+	private static void quickSort(int[] a, int lo, int hi, int[] buf, int depth) {
+		while (hi - lo > CUTOFF) {
+			if (depth-- == 0) {
+				mergeSort(a, lo, hi, buf);
+				return;
+			}
+			final int pivot = pivot(a, lo, hi);
+			final int mid = partition(a, lo, hi, pivot, false, buf);
+			if (mid == lo) {
+				// Nothing is below the pivot, so every copy of it is already in place
+				lo = partition(a, lo, hi, pivot, true, buf);
+				continue;
+			}
+			if (mid - lo < hi - mid) {
+				quickSort(a, lo, mid, buf, depth);
+				lo = mid;
+			} else {
+				quickSort(a, mid, hi, buf, depth);
+				hi = mid;
+			}
+		}
+		UsesSorter.Sorter.SmallSort.sort(a, lo, hi);
+	}
+	
+	/**
+	 * Quick sort indices lo (inclusive) to hi (exclusive), recursing into the smaller side
+	 * 
+	 * @param a
+	 * @param lo
+	 * @param hi
+	 * @param buf scratch space of at least hi - lo plus one vector
+	 * @param depth
+	 */
+	private static void quickSort(long[] a, int lo, int hi, long[] buf, int depth) {
+		while (hi - lo > CUTOFF) {
+			if (depth-- == 0) {
+				mergeSort(a, lo, hi, buf);
+				return;
+			}
+			final long pivot = pivot(a, lo, hi);
+			final int mid = partition(a, lo, hi, pivot, false, buf);
+			if (mid == lo) {
+				lo = partition(a, lo, hi, pivot, true, buf);
+				continue;
+			}
+			if (mid - lo < hi - mid) {
+				quickSort(a, lo, mid, buf, depth);
+				lo = mid;
+			} else {
+				quickSort(a, mid, hi, buf, depth);
+				hi = mid;
+			}
+		}
+		UsesSorter.Sorter.SmallSort.sort(a, lo, hi);
+	}
+	
+	/**
+	 * Median of three samples, or of three medians of three for large ranges
+	 * 
+	 * @param a
+	 * @param lo
+	 * @param hi
+	 * @return
+	 */
+	private static int pivot(int[] a, int lo, int hi) {
+		final int n = hi - lo, m = lo + (n >> 1);
+		if (n < 1024)
+			return median(a[lo], a[m], a[hi - 1]);
+		final int s = n >> 3;
+		return median(median(a[lo], a[lo + s], a[lo + 2 * s]), median(a[m - s], a[m], a[m + s]), 
+				median(a[hi - 1 - 2 * s], a[hi - 1 - s], a[hi - 1]));
+	}
+	
+	/**
+	 * Median of three samples, or of three medians of three for large ranges
+	 * 
+	 * @param a
+	 * @param lo
+	 * @param hi
+	 * @return
+	 */
+	private static long pivot(long[] a, int lo, int hi) {
+		final int n = hi - lo, m = lo + (n >> 1);
+		if (n < 1024)
+			return median(a[lo], a[m], a[hi - 1]);
+		final int s = n >> 3;
+		return median(median(a[lo], a[lo + s], a[lo + 2 * s]), median(a[m - s], a[m], a[m + s]), 
+				median(a[hi - 1 - 2 * s], a[hi - 1 - s], a[hi - 1]));
+	}
+	
+	private static int median(int x, int y, int z) {
+		return Math.max(Math.min(x, y), Math.min(Math.max(x, y), z));
+	}
+	
+	private static long median(long x, long y, long z) {
+		return Math.max(Math.min(x, y), Math.min(Math.max(x, y), z));
+	}
+	
+	/**
+	 * Partition indices lo (inclusive) to hi (exclusive) into the elements below the argument pivot 
+	 * (or not above it, if argument equal is true) followed by the rest.  Whole vectors are packed 
+	 * with a permutation chosen by their comparison mask; the tail is partitioned in scalar code.
+	 * 
+	 * @param a
+	 * @param lo
+	 * @param hi
+	 * @param pivot
+	 * @param equal whether elements equal to the pivot go to the low side
+	 * @param buf spill buffer for the high side
+	 * @return index of the first element of the high side
+	 */
+	private static int partition(int[] a, int lo, int hi, int pivot, boolean equal, int[] buf) {
+		final int all = (1 << IW) - 1;
+		int l = lo, r = 0, i = lo;
+		for (final int bound = hi - IW; i <= bound; i += IW) {
+			final IntVector v = IntVector.fromArray(INTS, a, i);
+			final int bits = (int) (equal ? v.compare(VectorOperators.LE, pivot) : v.compare(VectorOperators.LT, pivot)).toLong();
+			final int count = Integer.bitCount(bits);
+			IntVector.fromArray(INTS, INT_PACK, bits * IW).selectFrom(v).intoArray(a, l);
+			IntVector.fromArray(INTS, INT_PACK, (~bits & all) * IW).selectFrom(v).intoArray(buf, r);
+			l += count;
+			r += IW - count;
+		}
+		for (; i < hi; ++i) {
+			final int v = a[i], below = (v < pivot || (equal && v == pivot)) ? 1 : 0;
+			a[l] = v;
+			buf[r] = v;
+			l += below;
+			r += below ^ 1;
+		}
+		System.arraycopy(buf, 0, a, l, r);
+		return l;
+	}
+	
+	/**
+	 * Partition indices lo (inclusive) to hi (exclusive) into the elements below the argument pivot 
+	 * (or not above it, if argument equal is true) followed by the rest.  Whole vectors are packed 
+	 * with a permutation chosen by their comparison mask; the tail is partitioned in scalar code.
+	 * 
+	 * @param a
+	 * @param lo
+	 * @param hi
+	 * @param pivot
+	 * @param equal whether elements equal to the pivot go to the low side
+	 * @param buf spill buffer for the high side
+	 * @return index of the first element of the high side
+	 */
+	private static int partition(long[] a, int lo, int hi, long pivot, boolean equal, long[] buf) {
+		final int all = (1 << LW) - 1;
+		int l = lo, r = 0, i = lo;
+		for (final int bound = hi - LW; i <= bound; i += LW) {
+			final LongVector v = LongVector.fromArray(LONGS, a, i);
+			final int bits = (int) (equal ? v.compare(VectorOperators.LE, pivot) : v.compare(VectorOperators.LT, pivot)).toLong();
+			final int count = Integer.bitCount(bits);
+			LongVector.fromArray(LONGS, LONG_PACK, bits * LW).selectFrom(v).intoArray(a, l);
+			LongVector.fromArray(LONGS, LONG_PACK, (~bits & all) * LW).selectFrom(v).intoArray(buf, r);
+			l += count;
+			r += LW - count;
+		}
+		for (; i < hi; ++i) {
+			final long v = a[i];
+			final int below = (v < pivot || (equal && v == pivot)) ? 1 : 0;
+			a[l] = v;
+			buf[r] = v;
+			l += below;
+			r += below ^ 1;
+		}
+		System.arraycopy(buf, 0, a, l, r);
+		return l;
+	}
+	
+	/**
+	 * Bottom up merge sort of indices lo (inclusive) to hi (exclusive).  Blocks of two vectors are 
+	 * sorted in registers, a shorter last block with {@link UsesSorter.Sorter.SmallSort}.
+	 * 
+	 * @param a
+	 * @param lo
+	 * @param hi
+	 * @param buf scratch space of at least hi - lo
+	 */
+	private static void mergeSort(int[] a, int lo, int hi, int[] buf) {
+		final int n = hi - lo, block = IW << 1;
+		int i = lo;
+		for (; i + block <= hi; i += block)
+			sortBlock(a, i);
+		UsesSorter.Sorter.SmallSort.sort(a, i, hi);
+		final int[] carry = new int[IW];
+		int[] src = a, dst = buf;
+		int srcOff = lo, dstOff = 0;
+		for (int w = block; w < n; w <<= 1) {
+			for (int j = 0; j < n; j += w << 1)
+				merge(src, srcOff + j, srcOff + Math.min(j + w, n), srcOff + Math.min(j + (w << 1), n), dst, dstOff + j, carry);
+			int[] t = src;
+			src = dst;
+			dst = t;
+			int o = srcOff;
+			srcOff = dstOff;
+			dstOff = o;
+		}
+		if (src != a)
+			System.arraycopy(src, srcOff, a, lo, n);
+	}
+	
+	/**
+	 * Bottom up merge sort of indices lo (inclusive) to hi (exclusive).  Blocks of two vectors are 
+	 * sorted in registers, a shorter last block with {@link UsesSorter.Sorter.SmallSort}.
+	 * 
+	 * @param a
+	 * @param lo
+	 * @param hi
+	 * @param buf scratch space of at least hi - lo
+	 */
+	private static void mergeSort(long[] a, int lo, int hi, long[] buf) {
+		final int n = hi - lo, block = LW << 1;
+		int i = lo;
+		for (; i + block <= hi; i += block)
+			sortBlock(a, i);
+		UsesSorter.Sorter.SmallSort.sort(a, i, hi);
+		final long[] carry = new long[LW];
+		long[] src = a, dst = buf;
+		int srcOff = lo, dstOff = 0;
+		for (int w = block; w < n; w <<= 1) {
+			for (int j = 0; j < n; j += w << 1)
+				merge(src, srcOff + j, srcOff + Math.min(j + w, n), srcOff + Math.min(j + (w << 1), n), dst, dstOff + j, carry);
+			long[] t = src;
+			src = dst;
+			dst = t;
+			int o = srcOff;
+			srcOff = dstOff;
+			dstOff = o;
+		}
+		if (src != a)
+			System.arraycopy(src, srcOff, a, lo, n);
+	}
+	
+	/**
+	 * Sort the two vectors starting at argument index in registers
+	 * 
+	 * @param a
+	 * @param i
+	 */
+	private static void sortBlock(int[] a, int i) {
+		final IntVector x = bitonic(IntVector.fromArray(INTS, a, i), INT_SORT_PARTNERS, INT_SORT_MAX);
+		final IntVector y = IntVector.fromArray(INTS, INT_REVERSE, 0) 
+				.selectFrom(bitonic(IntVector.fromArray(INTS, a, i + IW), INT_SORT_PARTNERS, INT_SORT_MAX));
+		bitonic(x.min(y), INT_MERGE_PARTNERS, INT_MERGE_MAX).intoArray(a, i);
+		bitonic(x.max(y), INT_MERGE_PARTNERS, INT_MERGE_MAX).intoArray(a, i + IW);
+	}
+	
+	/**
+	 * Sort the two vectors starting at argument index in registers
+	 * 
+	 * @param a
+	 * @param i
+	 */
+	private static void sortBlock(long[] a, int i) {
+		final LongVector x = bitonic(LongVector.fromArray(LONGS, a, i), LONG_SORT_PARTNERS, LONG_SORT_MAX);
+		final LongVector y = LongVector.fromArray(LONGS, LONG_REVERSE, 0) 
+				.selectFrom(bitonic(LongVector.fromArray(LONGS, a, i + LW), LONG_SORT_PARTNERS, LONG_SORT_MAX));
+		bitonic(x.min(y), LONG_MERGE_PARTNERS, LONG_MERGE_MAX).intoArray(a, i);
+		bitonic(x.max(y), LONG_MERGE_PARTNERS, LONG_MERGE_MAX).intoArray(a, i + LW);
+	}
+	
+	/**
+	 * Apply the compare exchange stages of a bitonic network to the lanes of argument vector.  Each 
+	 * stage pairs every lane with the partner given by one row of argument partners, and the lanes 
+	 * flagged in the same row of argument takesMax keep the larger of the pair.
+	 * 
+	 * @param v
+	 * @param partners
+	 * @param takesMax
+	 * @return
+	 */
+	private static IntVector bitonic(IntVector v, int[] partners, boolean[] takesMax) {
+		for (int s = 0; s < partners.length; s += IW) {
+			final IntVector p = IntVector.fromArray(INTS, partners, s).selectFrom(v);
+			v = v.min(p).blend(v.max(p), VectorMask.fromArray(INTS, takesMax, s));
+		}
+		return v;
+	}
+	
+	/**
+	 * Apply the compare exchange stages of a bitonic network to the lanes of argument vector.  Each 
+	 * stage pairs every lane with the partner given by one row of argument partners, and the lanes 
+	 * flagged in the same row of argument takesMax keep the larger of the pair.
+	 * 
+	 * @param v
+	 * @param partners
+	 * @param takesMax
+	 * @return
+	 */
+	private static LongVector bitonic(LongVector v, long[] partners, boolean[] takesMax) {
+		for (int s = 0; s < partners.length; s += LW) {
+			final LongVector p = LongVector.fromArray(LONGS, partners, s).selectFrom(v);
+			v = v.min(p).blend(v.max(p), VectorMask.fromArray(LONGS, takesMax, s));
+		}
+		return v;
+	}
+	
+	/**
+	 * Merge sorted runs src[i..mid) and src[mid..end) into dst starting at index k, one vector at a 
+	 * time while the run with the smaller head has a whole vector left, then in scalar code
+	 * 
+	 * @param src
+	 * @param i
+	 * @param mid
+	 * @param end
+	 * @param dst
+	 * @param k
+	 * @param carry scratch space of one vector
+	 */
+	private static void merge(int[] src, int i, int mid, int end, int[] dst, int k, int[] carry) {
+		int j = mid, c = IW;
+		if (mid - i >= IW && end - mid >= IW) {
+			final IntVector reverse = IntVector.fromArray(INTS, INT_REVERSE, 0);
+			IntVector hi = IntVector.fromArray(INTS, src, i);
+			IntVector next = IntVector.fromArray(INTS, src, j);
+			i += IW;
+			j += IW;
+			for (;;) {
+				final IntVector r = reverse.selectFrom(next);
+				bitonic(hi.min(r), INT_MERGE_PARTNERS, INT_MERGE_MAX).intoArray(dst, k);
+				hi = bitonic(hi.max(r), INT_MERGE_PARTNERS, INT_MERGE_MAX);
+				k += IW;
+				if (i < mid && (j == end || src[i] <= src[j])) {
+					if (i + IW > mid)
+						break;
+					next = IntVector.fromArray(INTS, src, i);
+					i += IW;
+				} else if (j < end) {
+					if (j + IW > end)
+						break;
+					next = IntVector.fromArray(INTS, src, j);
+					j += IW;
+				} else
+					break;
+			}
+			hi.intoArray(carry, 0);
+			c = 0;
+		}
+		while (c < IW || i < mid || j < end) {
+			final boolean fromCarry = c < IW && (i == mid || carry[c] <= src[i]) && (j == end || carry[c] <= src[j]);
+			if (fromCarry)
+				dst[k++] = carry[c++];
+			else if (i < mid && (j == end || src[i] <= src[j]))
+				dst[k++] = src[i++];
+			else
+				dst[k++] = src[j++];
+		}
+	}
+	
+	/**
+	 * Merge sorted runs src[i..mid) and src[mid..end) into dst starting at index k, one vector at a 
+	 * time while the run with the smaller head has a whole vector left, then in scalar code
+	 * 
+	 * @param src
+	 * @param i
+	 * @param mid
+	 * @param end
+	 * @param dst
+	 * @param k
+	 * @param carry scratch space of one vector
+	 */
+	private static void merge(long[] src, int i, int mid, int end, long[] dst, int k, long[] carry) {
+		int j = mid, c = LW;
+		if (mid - i >= LW && end - mid >= LW) {
+			final LongVector reverse = LongVector.fromArray(LONGS, LONG_REVERSE, 0);
+			LongVector hi = LongVector.fromArray(LONGS, src, i);
+			LongVector next = LongVector.fromArray(LONGS, src, j);
+			i += LW;
+			j += LW;
+			for (;;) {
+				final LongVector r = reverse.selectFrom(next);
+				bitonic(hi.min(r), LONG_MERGE_PARTNERS, LONG_MERGE_MAX).intoArray(dst, k);
+				hi = bitonic(hi.max(r), LONG_MERGE_PARTNERS, LONG_MERGE_MAX);
+				k += LW;
+				if (i < mid && (j == end || src[i] <= src[j])) {
+					if (i + LW > mid)
+						break;
+					next = LongVector.fromArray(LONGS, src, i);
+					i += LW;
+				} else if (j < end) {
+					if (j + LW > end)
+						break;
+					next = LongVector.fromArray(LONGS, src, j);
+					j += LW;
+				} else
+					break;
+			}
+			hi.intoArray(carry, 0);
+			c = 0;
+		}
+		while (c < LW || i < mid || j < end) {
+			final boolean fromCarry = c < LW && (i == mid || carry[c] <= src[i]) && (j == end || carry[c] <= src[j]);
+			if (fromCarry)
+				dst[k++] = carry[c++];
+			else if (i < mid && (j == end || src[i] <= src[j]))
+				dst[k++] = src[i++];
+			else
+				dst[k++] = src[j++];
+		}
+	}
+	
+	/**
+	 * Permutation table for the partition: row m lists the lanes set in mask m in order, then the 
+	 * lanes that are not
+	 * 
+	 * @param lanes
+	 * @return 2^lanes rows of argument lanes indices
+	 */
+	private static int[] pack(int lanes) {
+		final int[] table = new int[lanes << lanes];
+		for (int m = 0; m < (1 << lanes); ++m) {
+			int k = m * lanes;
+			for (int i = 0; i < lanes; ++i)
+				if ((m & (1 << i)) != 0)
+					table[k++] = i;
+			for (int i = 0; i < lanes; ++i)
+				if ((m & (1 << i)) == 0)
+					table[k++] = i;
+		}
+		return table;
+	}
+	
+	private static int[] reverse(int lanes) {
+		final int[] table = new int[lanes];
+		for (int i = 0; i < lanes; ++i)
+			table[i] = lanes - 1 - i;
+		return table;
+	}
+	
+	/**
+	 * Partner lanes of every stage of a bitonic network over argument lanes, one row per stage.  The 
+	 * full sort has stages for every block size k and distance j; the merge of a bitonic sequence 
+	 * only the stages of the last block size.
+	 * 
+	 * @param lanes
+	 * @param merge
+	 * @return
+	 */
+	private static int[] partners(int lanes, boolean merge) {
+		final int[] table = new int[lanes * stages(lanes, merge)];
+		int s = 0;
+		for (int k = merge ? lanes : 2; k <= lanes; k <<= 1)
+			for (int j = k >> 1; j > 0; j >>= 1, s += lanes)
+				for (int i = 0; i < lanes; ++i)
+					table[s + i] = i ^ j;
+		return table;
+	}
+	
+	/**
+	 * Lanes that keep the larger element of their pair, in the layout of {@link #partners}.  A lane 
+	 * takes the larger one when it is the upper lane of an ascending block or the lower lane of a 
+	 * descending one.
+	 * 
+	 * @param lanes
+	 * @param merge
+	 * @return
+	 */
+	private static boolean[] takesMax(int lanes, boolean merge) {
+		final boolean[] table = new boolean[lanes * stages(lanes, merge)];
+		int s = 0;
+		for (int k = merge ? lanes : 2; k <= lanes; k <<= 1)
+			for (int j = k >> 1; j > 0; j >>= 1, s += lanes)
+				for (int i = 0; i < lanes; ++i)
+					table[s + i] = ((i & k) == 0) != ((i & j) == 0);
+		return table;
+	}
+	
+	private static int stages(int lanes, boolean merge) {
+		final int log = Integer.numberOfTrailingZeros(lanes);
+		return merge ? log : log * (log + 1) / 2;
+	}
+	
+	private static long[] widen(int[] a) {
+		final long[] res = new long[a.length];
+		for (int i = 0; i < a.length; ++i)
+			res[i] = a[i];
+		return res;
+	}
+}
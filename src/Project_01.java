@@ -8,6 +8,6 @@
 public class Project_01 implements UsesSorter {
 
 	public static void main(String[] args) {
-		Sorter.demoAll();
+		Sorter.run(args);
 	}
 }
\ No newline at end of file
@@ -1,23 +1,85 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.reflect.Array;
 import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.Objects;
 import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.SplittableRandom;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import com.sun.management.ThreadMXBean;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
 
 /**
  * Interface wrapper for easy inclusion of {@link Sorter}.
@@ -35,7 +97,15 @@ public interface UsesSorter {
 	 * <br>- Quick sort
 	 * <br>- Merge sort
 	 * <br>- Merge sort (multithreaded)
+	 * <br>- Merge sort (cache aware, multiway)
+	 * <br>- Sample sort (multithreaded)
+	 * <br>- Counting sort
+	 * <br>- Bucket sort
+	 * <br>- Auto sort (engine chosen per call)
 	 * <br>- Heap sort
+	 * <br>- Lazy sorted iterator / stream
+	 * <br>- Batched / segmented sort of many small arrays
+	 * <br>- Columnar multi-key sort of tables
 	 * <br>
 	 * <br>- Insertion sort k
 	 * <br>- Selection sort k
@@ -43,8 +113,14 @@ public interface UsesSorter {
 	 * <br>- Quick sort k
 	 * <br>- Merge sort k
 	 * <br>- Merge sort k (multithreaded)
+	 * <br>- Merge sort k (cache aware, multiway)
+	 * <br>- Sample sort k (multithreaded)
+	 * <br>- Counting select
+	 * <br>- Bucket select
+	 * <br>- Auto select (engine chosen per call)
 	 * <br>- Heap sort k
 	 * <br>- Median of medians
+	 * <br>- Multi select
 	 * 
 	 * @author Alex Feaser
 	 */
@@ -66,6 +142,19 @@ public interface UsesSorter {
 			HEAP,
 			HEAP_K,
 			MEDIAN_OF_MEDIANS,
+			MULTI_SELECT,
+			CACHE_MERGE,
+			CACHE_MERGE_K,
+			SAMPLE,
+			SAMPLE_K,
+			SORT_ALL,
+			COUNTING,
+			COUNTING_K,
+			BUCKET,
+			BUCKET_K,
+			AUTO,
+			AUTO_K,
+			COLUMNS,
 		};
 		
 		enum Type {
@@ -82,11 +171,37 @@ public interface UsesSorter {
 		};
 		
 		private static final int STRING_LEN = 64;
+		private static final String DISTRIBUTION = "uniform";
+		private static final int DEFAULT_SMALL_SORT_CUTOFF = SmallSort.NETWORK_MAX;
+		private static final int DEFAULT_CACHE_BLOCK = 1 << 14;
+		private static final int DEFAULT_MERGE_FAN_IN = 32;
+		private static final int DEFAULT_FORK_THRESHOLD = 1 << 12;
+		private static int smallSortCutoff = DEFAULT_SMALL_SORT_CUTOFF;
+		private static int cacheBlock = DEFAULT_CACHE_BLOCK;
+		private static int mergeFanIn = DEFAULT_MERGE_FAN_IN;
+		private static int forkThreshold = DEFAULT_FORK_THRESHOLD;
+		private static final int SAMPLE_SORT_MIN = 1 << 13;
+		private static final int SAMPLE_OVERSAMPLING = 32;
+		private static final int COUNTING_MAX_RANGE = 1 << 16;
+		private static int countingRangeFactor = 4;
+		private static final int PARALLEL_HISTOGRAM_MIN = 1 << 16;
+		private static final int BUCKET_LOAD = 4;
+		private static final int BUCKET_MAX_DEPTH = 2;
 		private static int NUM_TRIALS = 100;
 		protected static int NEW_ARRAY_LEN;
-		private static SortStats tracker = new SortStats();
-		private static List<SortStats> trialResults = new ArrayList<>();
-		private static HashMap<Type, HashMap<Integer, List<SortStats>>> totals = new HashMap<>();
+		private static final ThreadLocal<SortStats> trackers = ThreadLocal.withInitial(SortStats::new);
+		private static final Map<Type, Map<Integer, List<SortStats>>> totals = new ConcurrentHashMap<>();
+		private static final HotLoops sharedHotLoops = new HotLoopKernel();
+		private static final ClassValue<HotLoops> hotLoopCopies = new ClassValue<>() {
+			@Override
+			protected HotLoops computeValue(Class<?> type) {
+				return specializeHotLoops();
+			}
+		};
+		private static byte[] hotLoopTemplate;
+		private static final int ARRAY_HEADER_BYTES = 16;
+		private static final int REF_BYTES = referenceBytes();
+		private static final ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
 		
 		private static final Type[] usingTypes = {
 			Type.SHORTS,
@@ -101,57 +216,229 @@ public interface UsesSorter {
 			Type.UUIDS,
 		};
 		
-		public static <E extends Comparable <? super E>> void demoAll() {
-			StringBuilder sb = new StringBuilder();
+		private static final int[] usingSizes = {
+			10, 
+			100, 
+			1000, 
+			10000,
+//			100000,
+//			1000000,
+//			10000000,
+		};
+		
+		/**
+		 * Tracker belonging to the calling thread
+		 */
+		private static SortStats tracker() {
+			return trackers.get();
+		}
+		
+		/**
+		 * Size of an object array of argument length, used to account auxiliary space
+		 * 
+		 * @param len
+		 * @return bytes including the array header, rounded to the object alignment
+		 */
+		private static long refArrayBytes(long len) {
+			return (ARRAY_HEADER_BYTES + len * REF_BYTES + 7) & ~7L;
+		}
+		
+		/**
+		 * Size of an int array of argument length, used to account auxiliary space
+		 * 
+		 * @param len
+		 * @return bytes including the array header, rounded to the object alignment
+		 */
+		private static long intArrayBytes(long len) {
+			return (ARRAY_HEADER_BYTES + len * Integer.BYTES + 7) & ~7L;
+		}
+		
+		/**
+		 * Size of a byte array of argument length, used to account auxiliary space
+		 * 
+		 * @param len
+		 * @return bytes including the array header, rounded to the object alignment
+		 */
+		private static long byteArrayBytes(long len) {
+			return (ARRAY_HEADER_BYTES + len + 7) & ~7L;
+		}
+		
+		/**
+		 * Size of an object reference in this JVM
+		 * 
+		 * @return 4 with compressed oops, otherwise 8
+		 */
+		private static int referenceBytes() {
 			try {
-				Files.write(Paths.get("output.txt"), "".getBytes());
-			} catch (IOException e) {
+				HotSpotDiagnosticMXBean hotspot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+				return Boolean.parseBoolean(hotspot.getVMOption("UseCompressedOops").getValue()) ? 4 : 8;
+			} catch (RuntimeException e) {
+				return 8;
+			}
+		}
+		
+		/**
+		 * Copy of the hot loops, see {@link HotLoopKernel}, belonging to the class of the elements of 
+		 * argument array
+		 * 
+		 * @param array array about to be worked on
+		 * @return
+		 */
+		private static HotLoops hotLoops(Object[] array) {
+			return (array.length == 0 || array[0] == null) ? sharedHotLoops : hotLoopCopies.get(array[0].getClass());
+		}
+		
+		/**
+		 * Define a new hidden copy of {@link HotLoopKernel}
+		 * 
+		 * @return an instance of the copy, or the shared instance if it could not be defined
+		 */
+		private static synchronized HotLoops specializeHotLoops() {
+			try {
+				if (hotLoopTemplate == null) {
+					try (var in = HotLoopKernel.class.getResourceAsStream("/" + HotLoopKernel.class.getName().replace('.', '/') + ".class")) {
+						if (in == null)
+							return sharedHotLoops;
+						hotLoopTemplate = in.readAllBytes();
+					}
+				}
+				MethodHandles.Lookup copy = MethodHandles.lookup().defineHiddenClass(hotLoopTemplate, true, MethodHandles.Lookup.ClassOption.NESTMATE);
+				return (HotLoops) copy.findConstructor(copy.lookupClass(), MethodType.methodType(void.class)).invoke();
+			} catch (Throwable e) {
 				e.printStackTrace();
+				return sharedHotLoops;
 			}
-			for (int n : new int[] {
-					10, 
-					100, 
-					1000, 
-					10000,
-//					100000,
-//					1000000,
-//					10000000,
-					}) {
-				Sorter.NEW_ARRAY_LEN = n;
-				final boolean VERBOSE = (n <= 100), SLOW = (n <= 100000);
-				for (Type type : usingTypes) {
-					if (n >= 1000000 && type == Type.CHARACTERS)
-						continue;	// Characters >= 1 million goes infinite on median of medians?
-					E[] a = randomize(newArray(type));
-					tracker.currentType = type;
-					sb.append(String.format("%n%n  ~~~~~~~~  %8s:  %-12s  ~~~~~~~~%n%n", 
-							type, String.format("n = %d", n)));
-					if (VERBOSE) sb.append(String.format("%-12s%s%n", "Unsorted: ", Arrays.deepToString(a)));
-					if (VERBOSE) sb.append(p(Sorter::insertionSort, a.clone()));
-					if (SLOW) sb.append(p(Sorter::insertionSortK, a.clone()));
-					if (VERBOSE) sb.append(p(Sorter::selectionSort, a.clone()));
-					if (SLOW) sb.append(p(Sorter::selectionSortK, a.clone()));
-					if (VERBOSE) sb.append(p(Sorter::bubbleSort, a.clone()));
-					if (VERBOSE) sb.append(p(Sorter::bubbleSortK, a.clone()));
-					if (VERBOSE) sb.append(p(Sorter::quickSort, a.clone()));
-					sb.append(p(Sorter::quickSelectK, a.clone()));
-					if (VERBOSE) sb.append(p(Sorter::mergeSort, a.clone()));
-					sb.append(p(Sorter::mergeSortK, a.clone()));
-					if (VERBOSE) sb.append(p(Sorter::mergeSortMulti, a.clone()));
-					sb.append(p(Sorter::mergeSortMultiK, a.clone()));
-					if (VERBOSE) sb.append(p(Sorter::heapSort, a.clone()));
-					sb.append(p(Sorter::heapSortK, a.clone()));
-					sb.append(p(Sorter::medianOfMedians, a.clone()));
-					sb.append("\n");
-					System.out.println(sb.toString());
+		}
+		
+		/**
+		 * Entry point for command line use.  With no arguments runs {@link #demoAll()}.
+		 * <br>
+		 * <br>Options:
+		 * <br>--workers=N    run N configurations concurrently
+		 * <br>--fork         run each configuration in its own JVM
+		 * <br>--pin          pin each forked JVM to a single core (implies --fork, Linux only)
+		 * <br>--seed=S       seed used to generate every input array
+		 * <br>--save=FILE    store the averaged results of the run in FILE
+		 * <br>--compare=BASE,NEW    report significant regressions of NEW against BASE and exit 
+		 * non-zero if there are any
+		 * <br>--primitive[=N]    benchmark {@link PrimitiveSort} against the boxed engines up to length N
+		 * <br>--shards=W:n:TYPE    sort and select across W worker JVMs and check against a single JVM sort
+		 * <br>--service=C:R    drive a {@link SortService} with C client threads making R requests each
+		 * <br>--batch=COUNT    sort COUNT small arrays one at a time, with sortAll and as flat segments
+		 * <br>--columns=n    sort a table of n rows by three key columns, as columns and as row objects
+		 * <br>--auto=n       plan and run auto sort and auto select on STRINGS inputs of n elements in several shapes
+		 * <br>--window=N:W   compare sliding window medians over N values against quick select per window
+		 * <br>--tune         time the tunable thresholds on this host and save them to its profile, see 
+		 * {@link Tuning}.  Other runs load the profile at startup, and tune first if there is none.
+		 * <br>--job=n:TYPE:SORT:SEED    run a single configuration (used by forked workers)
+		 * <br>--shard-worker=PORT    serve a {@link ShardedSort} coordinator on a loopback port (used by 
+		 * sharded workers)
+		 * 
+		 * @param args
+		 */
+		public static void run(String... args) {
+			if (!Tuning.load() && Arrays.stream(args).noneMatch(a -> 
+					a.startsWith("--tune") || a.startsWith("--compare") || a.startsWith("--job") || a.startsWith("--shard-worker")))
+				System.out.println(Tuning.tune());
+			int workers = 1;
+			boolean fork = false, pin = false;
+			long seed = System.nanoTime();
+			String save = null;
+			for (String arg : args) {
+				String[] kv = arg.split("=", 2);
+				switch (kv[0]) {
+				case "--workers":
+					workers = Integer.parseInt(kv[1]);
+					break;
+				case "--fork":
+					fork = true;
+					break;
+				case "--pin":
+					fork = pin = true;
+					break;
+				case "--seed":
+					seed = Long.parseLong(kv[1]);
+					break;
+				case "--save":
+					save = kv[1];
+					break;
+				case "--compare":
+					String[] runs = kv[1].split(",");
 					try {
-						Files.write(Paths.get("output.txt"), sb.toString().getBytes(), StandardOpenOption.APPEND);
+						if (ResultStore.compare(Paths.get(runs[0]), Paths.get(runs[1])))
+							System.exit(1);
 					} catch (IOException e) {
 						e.printStackTrace();
+						System.exit(2);
 					}
-					sb.setLength(0);
+					return;
+				case "--primitive":
+					demoPrimitive((kv.length > 1) ? Integer.parseInt(kv[1]) : 10000000, seed);
+					return;
+				case "--shards":
+					String[] wnt = kv[1].split(":");
+					demoSharded(Integer.parseInt(wnt[0]), Integer.parseInt(wnt[1]), Type.valueOf(wnt[2]), seed);
+					return;
+				case "--shard-worker":
+					ShardedSort.runWorker(Integer.parseInt(kv[1]));
+					return;
+				case "--service":
+					String[] cr = kv[1].split(":");
+					demoService(Integer.parseInt(cr[0]), Integer.parseInt(cr[1]), seed);
+					return;
+				case "--batch":
+					demoBatch(Integer.parseInt(kv[1]), seed);
+					return;
+				case "--columns":
+					demoColumns(Integer.parseInt(kv[1]), seed);
+					return;
+				case "--auto":
+					demoAuto(Integer.parseInt(kv[1]), seed);
+					return;
+				case "--window":
+					String[] nw = kv[1].split(":");
+					demoSlidingWindow(Integer.parseInt(nw[0]), Integer.parseInt(nw[1]), seed);
+					return;
+				case "--tune":
+					System.out.println(Tuning.tune());
+					return;
+				case "--job":
+					MatrixRunner.runForkedJob(kv[1]);
+					return;
+				default:
+					throw new IllegalArgumentException("Unknown option: " + arg);
 				}
 			}
+			demoAll(workers, fork, pin, seed);
+			if (save != null) {
+				try {
+					ResultStore.fromTotals().save(Paths.get(save));
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+		
+		public static void demoAll() {
+			demoAll(1, false, false, System.nanoTime());
+		}
+		
+		/**
+		 * Run every algorithm against every size and type in {@link #usingSizes} and {@link #usingTypes}
+		 * 
+		 * @param workers number of configurations run concurrently
+		 * @param fork run each configuration in a separate JVM
+		 * @param pin pin each forked JVM to a single core
+		 * @param seed seed used to generate every input array
+		 */
+		public static void demoAll(int workers, boolean fork, boolean pin, long seed) {
+			try {
+				Files.write(Paths.get("output.txt"), "".getBytes());
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			new MatrixRunner(workers, fork, pin).run(usingSizes, usingTypes, seed);
+			StringBuilder sb = new StringBuilder();
 			sb.append(outputSummary());
 			System.out.println(sb.toString());
 			try {
@@ -161,6 +448,625 @@ public interface UsesSorter {
 			}
 		}
 		
+		/**
+		 * Plan and run {@link #autoSort(Comparable[])} and {@link #autoSelect(Comparable[], int)} of the 
+		 * median on STRINGS arrays of argument length that are uniform, sorted, reversed and drawn from 
+		 * three distinct values, checking each against {@link Arrays#sort(Object[])}.  The engines are 
+		 * called once each on the input as shaped, not through the tracked trials, which reshuffle it.
+		 * 
+		 * @param n
+		 * @param seed
+		 */
+		public static void demoAuto(int n, long seed) {
+			String[] uniform = DataGenerator.generate(Type.STRINGS, n, seed);
+			String[] sorted = uniform.clone();
+			Arrays.sort(sorted);
+			String[] reversed = new String[n], few = new String[n];
+			SplittableRandom rand = new SplittableRandom(seed);
+			for (int i = 0; i < n; ++i) {
+				reversed[i] = sorted[n - 1 - i];
+				few[i] = uniform[rand.nextInt(Math.min(3, n))];
+			}
+			final String[] shapes = { "Uniform", "Sorted", "Reversed", "3 distinct" };
+			final String[][] inputs = { uniform, sorted, reversed, few };
+			final int k = medianPosition(n);
+			
+			StringBuilder sb = new StringBuilder();
+			sb.append(String.format("%n  ~~~~~~~~  Auto planner:  STRINGS,  n = %d,  k = %d  ~~~~~~~~%n%n", n, k));
+			sb.append(String.format("%-14s%-20s%-16s%-20s%-16s%s%n", "Shape:", "Sort plan:", "Sort time:", "Select plan:", "Select time:", "Match:"));
+			for (int i = 0; i < inputs.length; ++i) {
+				String[] expected = inputs[i].clone();
+				Arrays.sort(expected);
+				tracker().currentType = Type.STRINGS;
+				Sort sortPlan = AutoPlanner.plan(inputs[i], -1), selectPlan = AutoPlanner.plan(inputs[i], k);
+				long start = System.nanoTime();
+				String[] res = autoSorter(inputs[i].clone());
+				long sortTime = System.nanoTime() - start;
+				start = System.nanoTime();
+				String kth = autoSelector(inputs[i].clone(), k);
+				long selectTime = System.nanoTime() - start;
+				sb.append(String.format("%-14s%-20s%-16s%-20s%-16s%s%n", shapes[i], sortPlan, SortStats.formatElapsed(sortTime), 
+						selectPlan, SortStats.formatElapsed(selectTime), Arrays.equals(res, expected) && kth.equals(expected[k - 1])));
+			}
+			System.out.println(sb.toString());
+		}
+		
+		/**
+		 * Compare the sliding window median of {@link SlidingWindowSelect} against recomputing each 
+		 * window's median with quick select
+		 * 
+		 * @param n number of values in the stream
+		 * @param w window length
+		 * @param seed
+		 */
+		public static void demoSlidingWindow(int n, int w, long seed) {
+			Long[] stream = DataGenerator.generate(Type.LONGS, n, seed);
+			final int k = medianPosition(w), windows = Math.max(0, n - w + 1);
+			long[] incremental = new long[windows], recomputed = new long[windows];
+			
+			long start = System.nanoTime();
+			SlidingWindowSelect select = new SlidingWindowSelect(w, k);
+			for (int i = 0; i < n; ++i) {
+				select.add(stream[i]);
+				if (select.isFull())
+					incremental[i - w + 1] = select.kth();
+			}
+			long slidingTime = System.nanoTime() - start;
+			
+			SortStats tracker = tracker();
+			tracker.currentType = Type.LONGS;
+			tracker.prep(w);
+			Long[] window = new Long[w];
+			for (int i = 0; i < windows; ++i) {
+				System.arraycopy(stream, i, window, 0, w);
+				recomputed[i] = quickSelectSorterK(window, k);
+			}
+			tracker.endTimer();
+			tracker.endAllocation();
+			
+			StringBuilder sb = new StringBuilder();
+			sb.append(String.format("%n  ~~~~~~~~  Sliding window median:  n = %d,  w = %d  ~~~~~~~~%n%n", n, w));
+			sb.append(String.format("%-24s%-20s%-20s%n", "", "Elapsed time:", "Per window:"));
+			sb.append(String.format("%-24s%-20s%-20s%n", "Two heaps", SortStats.formatElapsed(slidingTime), 
+					SortStats.formatElapsed(slidingTime / Math.max(1, windows))));
+			sb.append(String.format("%-24s%-20s%-20s%n", "Quick select per window", SortStats.formatElapsed(tracker.elapsedTime), 
+					SortStats.formatElapsed(tracker.elapsedTime / Math.max(1, windows))));
+			sb.append(String.format("%n%-24s%s%n", "Results match: ", Arrays.equals(incremental, recomputed)));
+			System.out.println(sb.toString());
+		}
+		
+		/**
+		 * Sort and select the median of a generated array across worker JVMs with {@link ShardedSort}, 
+		 * checking both against a single JVM sort
+		 * 
+		 * @param workers number of worker JVMs
+		 * @param n
+		 * @param type
+		 * @param seed
+		 */
+		public static <E extends Comparable<? super E>> void demoSharded(int workers, int n, Type type, long seed) {
+			E[] input = DataGenerator.generate(type, n, seed);
+			E[] expected = input.clone();
+			Arrays.sort(expected);
+			StringBuilder sb = new StringBuilder();
+			sb.append(String.format("%n  ~~~~~~~~  Sharded sort:  %s,  n = %d,  %d workers  ~~~~~~~~%n%n", type, n, workers));
+			long start = System.nanoTime();
+			try (ShardedSort sharded = new ShardedSort(workers)) {
+				sb.append(String.format("%-24s%s%n", "Worker startup:", SortStats.formatElapsed(System.nanoTime() - start)));
+				E[] sorted = input.clone();
+				start = System.nanoTime();
+				sharded.sort(type, Sort.MERGE, sorted);
+				sb.append(String.format("%-24s%s%n", "Sort:", SortStats.formatElapsed(System.nanoTime() - start)));
+				sb.append(String.format("%-24s%s%n", "Shard sizes:", Arrays.toString(sharded.shardSizes)));
+				sb.append(String.format("%-24s%s%n", "Worker sort times:", Arrays.stream(sharded.workerTimes)
+						.mapToObj(SortStats::formatElapsed).collect(Collectors.joining(", ", "[", "]"))));
+				sb.append(String.format("%-24s%s%n", "Sorted matches:", Arrays.equals(sorted, expected)));
+				final int k = medianPosition(n);
+				start = System.nanoTime();
+				E median = sharded.select(type, Sort.MERGE_K, input.clone(), k);
+				sb.append(String.format("%n%-24s%s%n", "Select k = " + k + ":", SortStats.formatElapsed(System.nanoTime() - start)));
+				sb.append(String.format("%-24s%s%n", "Selected matches:", median.equals(expected[k - 1])));
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			System.out.println(sb.toString());
+		}
+		
+		/**
+		 * Drive a {@link SortService} from argument number of client threads, each making argument 
+		 * number of requests one after another, and report the service's latency metrics.  One request 
+		 * in a hundred is large enough for the parallel engine; a quarter are median selections.
+		 * 
+		 * @param clients
+		 * @param requests per client
+		 * @param seed
+		 */
+		public static void demoService(int clients, int requests, long seed) {
+			final int processors = Runtime.getRuntime().availableProcessors();
+			final int[] failures = new int[1];
+			long start = System.nanoTime();
+			try (SortService service = new SortService(processors, 4 * SortService.BATCH_MAX * processors)) {
+				ExecutorService pool = Executors.newFixedThreadPool(clients);
+				for (int c = 0; c < clients; ++c) {
+					final SplittableRandom rand = new SplittableRandom(seed + c);
+					pool.execute(() -> {
+						for (int i = 0; i < requests; ++i) {
+							int n = (rand.nextInt(100) == 0) ? 2 * SortService.PARALLEL_MIN : 10 + rand.nextInt(91);
+							Integer[] array = DataGenerator.generate(Type.INTEGERS, n, rand.nextLong());
+							Integer[] expected = array.clone();
+							Arrays.sort(expected);
+							boolean ok = (i % 4 == 0) 
+									? service.select(array, medianPosition(n)).join().equals(expected[medianPosition(n) - 1])
+									: Arrays.equals(service.sort(array).join(), expected);
+							if (!ok) {
+								synchronized (failures) {
+									failures[0]++;
+								}
+							}
+						}
+					});
+				}
+				pool.shutdown();
+				try {
+					pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+				} catch (InterruptedException e) {
+					e.printStackTrace();
+				}
+				long elapsed = System.nanoTime() - start;
+				StringBuilder sb = new StringBuilder();
+				sb.append(String.format("%n  ~~~~~~~~  Sort service:  %d clients,  %d requests each,  %d carriers  ~~~~~~~~%n%n", 
+						clients, requests, processors));
+				sb.append(service.metrics());
+				sb.append(String.format("%n%-24s%s%n", "Elapsed time:", SortStats.formatElapsed(elapsed)));
+				sb.append(String.format("%-24s%.0f%n", "Requests per second:", clients * (double) requests * 1e9 / elapsed));
+				sb.append(String.format("%-24s%d%n", "Incorrect results:", failures[0]));
+				System.out.println(sb.toString());
+			}
+		}
+		
+		/**
+		 * Sort argument number of INTEGERS arrays of 10 to 100 elements one call per array, with 
+		 * {@link #sortAll(Comparable[][])}, and as one flat int array with 
+		 * {@link #sortSegments(int[], int[])}.  Each time is the fastest of three runs.
+		 * 
+		 * @param count
+		 * @param seed
+		 */
+		@SuppressWarnings("unchecked")
+		public static void demoBatch(int count, long seed) {
+			SplittableRandom rand = new SplittableRandom(seed);
+			Integer[][] arrays = new Integer[count][];
+			int[] offsets = new int[count + 1];
+			for (int i = 0; i < count; ++i) {
+				arrays[i] = DataGenerator.generate(Type.INTEGERS, 10 + rand.nextInt(91), rand.nextLong());
+				offsets[i + 1] = offsets[i] + arrays[i].length;
+			}
+			int[] flat = new int[offsets[count]];
+			for (int i = 0; i < count; ++i)
+				for (int j = 0; j < arrays[i].length; ++j)
+					flat[offsets[i] + j] = arrays[i][j];
+			
+			long perArray = Long.MAX_VALUE, batched = Long.MAX_VALUE, segmented = Long.MAX_VALUE;
+			String batchTrial = "", segmentTrial = "";
+			boolean match = true;
+			for (int rep = 0; rep < 3; ++rep) {
+				Integer[][] copy = Arrays.stream(arrays).map(Integer[]::clone).toArray(Integer[][]::new);
+				long start = System.nanoTime();
+				for (Integer[] a : copy)
+					Sorter.<Integer>sorterFor(Sort.MERGE).apply(a);
+				perArray = Math.min(perArray, System.nanoTime() - start);
+				
+				Integer[][] batch = Arrays.stream(arrays).map(Integer[]::clone).toArray(Integer[][]::new);
+				tracker().currentType = null;
+				start = System.nanoTime();
+				sortAll(batch);
+				batched = Math.min(batched, System.nanoTime() - start);
+				batchTrial = tracker().outputTrialResults();
+				
+				int[] values = flat.clone();
+				start = System.nanoTime();
+				sortSegments(values, offsets);
+				segmented = Math.min(segmented, System.nanoTime() - start);
+				segmentTrial = tracker().outputTrialResults();
+				
+				for (int i = 0; i < count; ++i) {
+					match &= Arrays.equals(copy[i], batch[i]);
+					for (int j = 0; j < batch[i].length; ++j)
+						match &= batch[i][j] == values[offsets[i] + j];
+				}
+			}
+			StringBuilder sb = new StringBuilder();
+			sb.append(String.format("%n  ~~~~~~~~  Batched sort:  %d arrays,  %d elements  ~~~~~~~~%n%n", count, offsets[count]));
+			sb.append(String.format("%-24s%s%n", "Merge sort per array:", SortStats.formatElapsed(perArray)));
+			sb.append(String.format("%-24s%s%n", "sortAll:", SortStats.formatElapsed(batched)));
+			sb.append(String.format("%-24s%s%n", "Flat int segments:", SortStats.formatElapsed(segmented)));
+			sb.append(String.format("%-24s%s%n", "Results match:", match));
+			sb.append(String.format("%n%-20s%s", "sortAll", batchTrial));
+			sb.append(String.format("%n%-20s%s", "sortSegments", segmentTrial));
+			System.out.println(sb.toString());
+		}
+		
+		/**
+		 * Sort a table of argument number of rows keyed by a LOCALDATETIMES column truncated to the day, 
+		 * then the first character of a STRINGS column, then a UUIDS column, carrying a row number and a 
+		 * double payload.  Compared against merge sorting row objects with a composite compareTo.  Each 
+		 * time is the fastest of three runs.
+		 * 
+		 * @param n
+		 * @param seed
+		 */
+		public static void demoColumns(int n, long seed) {
+			final class Row implements Comparable<Row> {
+				final LocalDateTime day;
+				final String initial;
+				final UUID id;
+				final int number;
+				final double value;
+				
+				Row(LocalDateTime day, String initial, UUID id, int number, double value) {
+					this.day = day;
+					this.initial = initial;
+					this.id = id;
+					this.number = number;
+					this.value = value;
+				}
+				
+				@Override
+				public int compareTo(Row o) {
+					int c = day.compareTo(o.day);
+					if (c == 0)
+						c = initial.compareTo(o.initial);
+					return (c != 0) ? c : id.compareTo(o.id);
+				}
+			}
+			LocalDateTime[] days = DataGenerator.generate(Type.LOCALDATETIMES, n, seed);
+			String[] initials = DataGenerator.generate(Type.STRINGS, n, seed + 1);
+			UUID[] ids = DataGenerator.generate(Type.UUIDS, n, seed + 2);
+			SplittableRandom rand = new SplittableRandom(seed);
+			double[] values = new double[n];
+			for (int i = 0; i < n; ++i) {
+				days[i] = days[i].truncatedTo(ChronoUnit.DAYS);
+				initials[i] = initials[i].substring(0, 1);
+				values[i] = rand.nextDouble();
+			}
+			
+			long rowTime = Long.MAX_VALUE, columnTime = Long.MAX_VALUE;
+			boolean match = true;
+			for (int rep = 0; rep < 3; ++rep) {
+				Row[] rows = new Row[n];
+				long start = System.nanoTime();
+				for (int i = 0; i < n; ++i)
+					rows[i] = new Row(days[i], initials[i], ids[i], i, values[i]);
+				Sorter.<Row>sorterFor(Sort.MERGE).apply(rows);
+				rowTime = Math.min(rowTime, System.nanoTime() - start);
+				
+				LocalDateTime[] d = days.clone();
+				String[] s = initials.clone();
+				UUID[] u = ids.clone();
+				int[] numbers = IntStream.range(0, n).toArray();
+				double[] v = values.clone();
+				tracker().currentType = null;
+				start = System.nanoTime();
+				sortColumns(new Object[] { d, s, u }, numbers, v);
+				columnTime = Math.min(columnTime, System.nanoTime() - start);
+				
+				for (int i = 0; i < n; ++i)
+					match &= rows[i].day.equals(d[i]) && rows[i].initial.equals(s[i]) && rows[i].id.equals(u[i]) 
+							&& rows[i].number == numbers[i] && rows[i].value == v[i];
+			}
+			StringBuilder sb = new StringBuilder();
+			sb.append(String.format("%n  ~~~~~~~~  Columnar sort:  %d rows,  keys LOCALDATETIMES (day), STRINGS (initial), UUIDS  ~~~~~~~~%n%n", n));
+			sb.append(String.format("%-24s%s%n", "Row objects:", SortStats.formatElapsed(rowTime)));
+			sb.append(String.format("%-24s%s%n", "sortColumns:", SortStats.formatElapsed(columnTime)));
+			sb.append(String.format("%-24s%s%n", "Results match:", match));
+			sb.append(String.format("%n%-20s%s", Sort.COLUMNS, tracker().outputTrialResults()));
+			System.out.println(sb.toString());
+		}
+		
+		/**
+		 * Compare {@link PrimitiveSort} against the boxed quick and merge sorts and 
+		 * {@link Arrays#sort(int[])} for the primitive numeric types, at sizes 10^5 up to argument maximum.  
+		 * Each time is the fastest of three runs on a fresh copy of the same input.  The vector engines 
+		 * only use vector kernels when run with VectorSort built, see {@link PrimitiveSort}.
+		 * 
+		 * @param maxN largest array length
+		 * @param seed
+		 */
+		public static void demoPrimitive(int maxN, long seed) {
+			final String[] engines = { "Quick", "Merge", "Branchless quick", "Branchless merge", "Vector quick", "Vector merge", "Arrays.sort" };
+			final String shape = PrimitiveSort.vectorShape();
+			StringBuilder sb = new StringBuilder();
+			sb.append(String.format("%n  ~~~~~~~~  Primitive sort engines  ~~~~~~~~%n%n%-22s%s%n%n%-10s%-12s", "Vector kernels:", 
+					(shape != null) ? shape : "not loaded, vector engines run scalar code", "Type:", "n:"));
+			for (String engine : engines)
+				sb.append(String.format("%-20s", engine));
+			sb.append(String.format("%-10s%n", "Match:"));
+			for (Type type : new Type[] { Type.INTEGERS, Type.LONGS, Type.FLOATS, Type.DOUBLES }) {
+				for (int n = 100000; n <= maxN; n *= 10) {
+					Comparable<?>[] boxed = DataGenerator.generate(type, n, seed);
+					Object[] sorted = new Object[engines.length];
+					sb.append(String.format("%-10s%-12d", type, n));
+					for (int e = 0; e < engines.length; ++e) {
+						long best = Long.MAX_VALUE;
+						for (int rep = 0; rep < 3; ++rep) {
+							Object copy = (e < 2) ? boxed.clone() : unbox(type, boxed);
+							long start = System.nanoTime();
+							sortWith(e, copy);
+							best = Math.min(best, System.nanoTime() - start);
+							sorted[e] = (e < 2) ? unbox(type, (Comparable<?>[]) copy) : copy;
+						}
+						sb.append(String.format("%-20s", SortStats.formatElapsed(best)));
+					}
+					boolean match = true;
+					for (int e = 1; e < engines.length; ++e)
+						match &= Objects.deepEquals(sorted[0], sorted[e]);
+					sb.append(String.format("%-10s%n", match));
+				}
+			}
+			System.out.println(sb.toString());
+		}
+		
+		/**
+		 * Run engine number e of {@link #demoPrimitive} on argument array
+		 * 
+		 * @param e
+		 * @param array boxed array for the first two engines, primitive array otherwise
+		 */
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private static void sortWith(int e, Object array) {
+			switch (e) {
+			case 0:
+				quickSorter((Comparable[]) array);
+				return;
+			case 1:
+				mergeSorter((Comparable[]) array);
+				return;
+			}
+			if (array instanceof int[])
+				switch (e) {
+				case 2: PrimitiveSort.sort((int[]) array); return;
+				case 3: PrimitiveSort.mergeSort((int[]) array); return;
+				case 4: PrimitiveSort.vectorSort((int[]) array); return;
+				case 5: PrimitiveSort.vectorMergeSort((int[]) array); return;
+				default: Arrays.sort((int[]) array); return;
+				}
+			if (array instanceof long[])
+				switch (e) {
+				case 2: PrimitiveSort.sort((long[]) array); return;
+				case 3: PrimitiveSort.mergeSort((long[]) array); return;
+				case 4: PrimitiveSort.vectorSort((long[]) array); return;
+				case 5: PrimitiveSort.vectorMergeSort((long[]) array); return;
+				default: Arrays.sort((long[]) array); return;
+				}
+			if (array instanceof float[])
+				switch (e) {
+				case 2: PrimitiveSort.sort((float[]) array); return;
+				case 3: PrimitiveSort.mergeSort((float[]) array); return;
+				case 4: PrimitiveSort.vectorSort((float[]) array); return;
+				case 5: PrimitiveSort.vectorMergeSort((float[]) array); return;
+				default: Arrays.sort((float[]) array); return;
+				}
+			switch (e) {
+			case 2: PrimitiveSort.sort((double[]) array); return;
+			case 3: PrimitiveSort.mergeSort((double[]) array); return;
+			case 4: PrimitiveSort.vectorSort((double[]) array); return;
+			case 5: PrimitiveSort.vectorMergeSort((double[]) array); return;
+			default: Arrays.sort((double[]) array); return;
+			}
+		}
+		
+		/**
+		 * Copy a boxed INTEGERS, LONGS, FLOATS or DOUBLES array into a primitive array
+		 * 
+		 * @param type
+		 * @param boxed
+		 * @return
+		 */
+		private static Object unbox(Type type, Comparable<?>[] boxed) {
+			switch (type) {
+			case INTEGERS:
+				return Arrays.stream(boxed).mapToInt(v -> (Integer) v).toArray();
+			case LONGS:
+				return Arrays.stream(boxed).mapToLong(v -> (Long) v).toArray();
+			case FLOATS:
+				float[] f = new float[boxed.length];
+				for (int i = 0; i < f.length; ++i)
+					f[i] = (Float) boxed[i];
+				return f;
+			case DOUBLES:
+				return Arrays.stream(boxed).mapToDouble(v -> (Double) v).toArray();
+			default:
+				throw new IllegalArgumentException("Not a primitive numeric type: " + type);
+			}
+		}
+		
+		/**
+		 * Algorithms run by {@link #demoAll()} for an array of length n
+		 * 
+		 * @param n
+		 * @param type
+		 * @return
+		 */
+		private static List<Sort> sortsFor(int n, Type type) {
+			final boolean VERBOSE = (n <= 100), SLOW = (n <= 100000);
+			List<Sort> sorts = new ArrayList<>();
+			if (VERBOSE) sorts.add(Sort.INSERTION);
+			if (SLOW) sorts.add(Sort.INSERTION_K);
+			if (VERBOSE) sorts.add(Sort.SELECTION);
+			if (SLOW) sorts.add(Sort.SELECTION_K);
+			if (VERBOSE) sorts.add(Sort.BUBBLE);
+			if (VERBOSE) sorts.add(Sort.BUBBLE_K);
+			if (VERBOSE) sorts.add(Sort.QUICK);
+			sorts.add(Sort.QUICK_K);
+			if (VERBOSE) sorts.add(Sort.MERGE);
+			sorts.add(Sort.MERGE_K);
+			if (VERBOSE) sorts.add(Sort.MT_MERGE);
+			sorts.add(Sort.MT_MERGE_K);
+			if (VERBOSE) sorts.add(Sort.CACHE_MERGE);
+			sorts.add(Sort.CACHE_MERGE_K);
+			if (VERBOSE) sorts.add(Sort.SAMPLE);
+			sorts.add(Sort.SAMPLE_K);
+			if (type == Type.SHORTS || type == Type.CHARACTERS) {
+				if (VERBOSE) sorts.add(Sort.COUNTING);
+				sorts.add(Sort.COUNTING_K);
+			}
+			if (type == Type.FLOATS || type == Type.DOUBLES) {
+				if (VERBOSE) sorts.add(Sort.BUCKET);
+				sorts.add(Sort.BUCKET_K);
+			}
+			if (VERBOSE) sorts.add(Sort.AUTO);
+			sorts.add(Sort.AUTO_K);
+			if (VERBOSE) sorts.add(Sort.HEAP);
+			sorts.add(Sort.HEAP_K);
+			sorts.add(Sort.MEDIAN_OF_MEDIANS);
+			sorts.add(Sort.MULTI_SELECT);
+			return sorts;
+		}
+		
+		/**
+		 * Run the argument algorithm on argument array and format its trial results
+		 * 
+		 * @param <E>
+		 * @param sort
+		 * @param a
+		 * @return
+		 */
+		private static <E extends Comparable<? super E>> StringBuilder runSort(Sort sort, E[] a) {
+			switch (sort) {
+			case INSERTION:
+				return p(Sorter::insertionSort, a);
+			case INSERTION_K:
+				return p(Sorter::insertionSortK, a);
+			case SELECTION:
+				return p(Sorter::selectionSort, a);
+			case SELECTION_K:
+				return p(Sorter::selectionSortK, a);
+			case BUBBLE:
+				return p(Sorter::bubbleSort, a);
+			case BUBBLE_K:
+				return p(Sorter::bubbleSortK, a);
+			case QUICK:
+				return p(Sorter::quickSort, a);
+			case QUICK_K:
+				return p(Sorter::quickSelectK, a);
+			case MERGE:
+				return p(Sorter::mergeSort, a);
+			case MERGE_K:
+				return p(Sorter::mergeSortK, a);
+			case MT_MERGE:
+				return p(Sorter::mergeSortMulti, a);
+			case MT_MERGE_K:
+				return p(Sorter::mergeSortMultiK, a);
+			case CACHE_MERGE:
+				return p(Sorter::cacheMergeSort, a);
+			case CACHE_MERGE_K:
+				return p(Sorter::cacheMergeSortK, a);
+			case SAMPLE:
+				return p(Sorter::sampleSort, a);
+			case SAMPLE_K:
+				return p(Sorter::sampleSortK, a);
+			case COUNTING:
+				return p(Sorter::countingSort, a);
+			case COUNTING_K:
+				return p(Sorter::countingSelectK, a);
+			case BUCKET:
+				return p(Sorter::bucketSort, a);
+			case BUCKET_K:
+				return p(Sorter::bucketSelectK, a);
+			case AUTO:
+				return p(Sorter::autoSort, a);
+			case AUTO_K:
+				return p(Sorter::autoSelect, a);
+			case HEAP:
+				return p(Sorter::heapSort, a);
+			case HEAP_K:
+				return p(Sorter::heapSortK, a);
+			case MEDIAN_OF_MEDIANS:
+				return p(Sorter::medianOfMedians, a);
+			case MULTI_SELECT:
+				return p((E[] array) -> multiSelect(array, percentileRanks(array.length)), a);
+			}
+			return new StringBuilder();
+		}
+		
+		/**
+		 * Untracked algorithm behind argument full sort
+		 * 
+		 * @param <E>
+		 * @param sort
+		 * @return
+		 */
+		private static <E extends Comparable<? super E>> Function<E[], E[]> sorterFor(Sort sort) {
+			switch (sort) {
+			case INSERTION:
+				return Sorter::insertionSorter;
+			case SELECTION:
+				return Sorter::selectionSortHelper;
+			case BUBBLE:
+				return Sorter::bubbleSorter;
+			case QUICK:
+				return Sorter::quickSorter;
+			case MERGE:
+				return Sorter::mergeSorter;
+			case MT_MERGE:
+				return Sorter::multithreadedMergeSort;
+			case HEAP:
+				return Sorter::heapSorter;
+			case CACHE_MERGE:
+				return a -> cacheMergeSorter(a, a.length);
+			case SAMPLE:
+				return a -> sampleSorter(a, -1);
+			case COUNTING:
+				return Sorter::countingSorter;
+			case BUCKET:
+				return Sorter::bucketSorter;
+			case AUTO:
+				return Sorter::autoSorter;
+			default:
+				throw new IllegalArgumentException("Not a full sort: " + sort);
+			}
+		}
+		
+		/**
+		 * Untracked algorithm behind argument kth element selection
+		 * 
+		 * @param <E>
+		 * @param sort
+		 * @return
+		 */
+		private static <E extends Comparable<? super E>> BiFunction<E[], Integer, E> selectorFor(Sort sort) {
+			switch (sort) {
+			case INSERTION_K:
+				return (a, k) -> insertionSorter(a)[k - 1];
+			case SELECTION_K:
+				return Sorter::selectionSortHelperK;
+			case BUBBLE_K:
+				return Sorter::bubbleSorterK;
+			case QUICK_K:
+				return Sorter::quickSelectSorterK;
+			case MERGE_K:
+				return Sorter::mergeSortHelperK;
+			case MT_MERGE_K:
+				return Sorter::multithreadedMergeSortK;
+			case HEAP_K:
+				return Sorter::heapSorterK;
+			case MEDIAN_OF_MEDIANS:
+				return Sorter::medianOfMediansHelper;
+			case CACHE_MERGE_K:
+				return (a, k) -> cacheMergeSorter(a, k)[k - 1];
+			case SAMPLE_K:
+				return (a, k) -> sampleSorter(a, k)[k - 1];
+			case COUNTING_K:
+				return Sorter::countingSelectorK;
+			case BUCKET_K:
+				return Sorter::bucketSelectorK;
+			case AUTO_K:
+				return Sorter::autoSelector;
+			default:
+				throw new IllegalArgumentException("Not a selection: " + sort);
+			}
+		}
+		
 		/**
 		 * Display formatted results from all trials including averages
 		 */
@@ -172,7 +1078,8 @@ public interface UsesSorter {
 				List<Integer> typeKeys = totals.get(type).keySet().stream().collect(Collectors.toList());
 				Collections.sort(typeKeys);
 				for (Integer n : typeKeys) {
-					List<SortStats> list = totals.get(type).get(n);
+					List<SortStats> list = new ArrayList<>(totals.get(type).get(n));
+					list.sort(Comparator.comparing(s -> s.currentSort));
 					final int size = list.size();
 					sb.append(String.format("\n  ~~~~~~~~  Average of %d trials:  %s,  n = %d  ~~~~~~~~\n\n", NUM_TRIALS, list.get(0).currentType.toString(), n));
 					sb.append(String.format("%6s%-10s%2s", "", "", ""));
@@ -182,6 +1089,12 @@ public interface UsesSorter {
 							list.get(0).arrayAccesses, ""));
 					for (int i = 1; i < size; ++i)
 						sb.append(String.format("%6s%-16d%2s", "", list.get(i).arrayAccesses, ""));
+					sb.append(String.format("\n%16s", "In cache:"));
+					for (int i = 0; i < size; ++i)
+						sb.append(String.format("%6s%-16d%2s", "", list.get(i).arrayAccesses - list.get(i).streamingAccesses, ""));
+					sb.append(String.format("\n%16s", "Streaming:"));
+					for (int i = 0; i < size; ++i)
+						sb.append(String.format("%6s%-16d%2s", "", list.get(i).streamingAccesses, ""));
 					sb.append(String.format("\n%16s%6s%-16d%2s", "Swaps:", "", 
 							list.get(0).swaps, ""));
 					for (int i = 1; i < size; ++i)
@@ -190,10 +1103,32 @@ public interface UsesSorter {
 							list.get(0).comparisons, ""));
 					for (int i = 1; i < size; ++i)
 						sb.append(String.format("%6s%-16d%2s", "", list.get(i).comparisons, ""));
+					if (list.stream().anyMatch(s -> s.loadImbalance > 0)) {
+						sb.append(String.format("\n%16s", "Imbalance:"));
+						for (int i = 0; i < size; ++i)
+							sb.append(String.format("%6s%-16.3f%2s", "", list.get(i).loadImbalance, ""));
+					}
+					sb.append(String.format("\n%16s", "Allocated:"));
+					for (int i = 0; i < size; ++i)
+						sb.append(String.format("%6s%-16s%2s", "", SortStats.formatBytes(list.get(i).bytesAllocated), ""));
+					sb.append(String.format("\n%16s", "Peak aux:"));
+					for (int i = 0; i < size; ++i)
+						sb.append(String.format("%6s%-16s%2s", "", SortStats.formatBytes(list.get(i).peakAuxBytes), ""));
 					sb.append(String.format("\n%16s%6s%-16s%2s", "Elapsed time:", "", 
 							SortStats.formatElapsed(list.get(0).elapsedTime), ""));
 					for (int i = 1; i < size; ++i)
 						sb.append(String.format("%6s%-16s%2s", "", SortStats.formatElapsed(list.get(i).elapsedTime), ""));
+					sb.append(String.format("\n%16s", "Elapsed min:"));
+					for (int i = 0; i < size; ++i)
+						sb.append(String.format("%6s%-16s%2s", "", SortStats.formatElapsed(list.get(i).elapsedMin), ""));
+					for (int p = 0; p < Distribution.PERCENTILES.length; ++p) {
+						sb.append(String.format("\n%16s", "Elapsed " + Distribution.PERCENTILE_NAMES[p] + ":"));
+						for (int i = 0; i < size; ++i)
+							sb.append(String.format("%6s%-16s%2s", "", SortStats.formatElapsed(list.get(i).elapsedPercentiles[p]), ""));
+					}
+					sb.append(String.format("\n%16s", "Elapsed max:"));
+					for (int i = 0; i < size; ++i)
+						sb.append(String.format("%6s%-16s%2s", "", SortStats.formatElapsed(list.get(i).elapsedMax), ""));
 					sb.append("\n\n").toString();
 				}					
 			}
@@ -203,19 +1138,19 @@ public interface UsesSorter {
 		private static <E extends Comparable<? super E>> StringBuilder p(Function<E[], E[]> f, E[] a) {
 			StringBuilder sb = new StringBuilder();
 			E[] res = f.apply(a);
-			return sb.append(String.format("%n%-20s%s%n%-12s%s%n%n", tracker.currentSort.toString(), 
-					tracker.outputTrialResults(), "Result: ", Arrays.toString(res)));
+			return sb.append(String.format("%n%-20s%s%n%-12s%s%n%n", tracker().currentSort.toString(), 
+					tracker().outputTrialResults(), "Result: ", Arrays.toString(res)));
 		}
 
 		private static <E extends Comparable<? super E>> StringBuilder p(BiFunction<E[], Integer, E> f, E[] a) {
 			StringBuilder sb = new StringBuilder();
-			E res = f.apply(a, medianPosition());
-			return sb.append(String.format("%n%-20s%s%n%-12s%s%n%n", tracker.currentSort.toString(), 
-					tracker.outputTrialResults(), "Result: ", res));
+			E res = f.apply(a, medianPosition(a.length));
+			return sb.append(String.format("%n%-20s%s%n%-12s%s%n%n", tracker().currentSort.toString(), 
+					tracker().outputTrialResults(), "Result: ", res));
 		}
 
-		private static int medianPosition() { 
-			return (Sorter.NEW_ARRAY_LEN + 1) >> 1; 
+		private static int medianPosition(int n) { 
+			return (n + 1) >> 1; 
 		}		
 
 		private static <E extends Comparable<? super E>> E[] newArray(Type type) {
@@ -299,75 +1234,23 @@ public interface UsesSorter {
 		 * @param array
 		 * @return Newly populated argument array
 		 */
-		@SuppressWarnings("unchecked")
 		public static <E extends Comparable<? super E>> E[] randomize(E[] array) {
-			Random rand = new Random();
-			if (array instanceof String[]) {
-				array = (E[]) new String[NEW_ARRAY_LEN];
-				String[] a = (String[]) array;
-				for (int n = 0; n < array.length; ++n) {
-					char[] arr = new char[STRING_LEN];
-					for (int i = 0 ; i < STRING_LEN; ++i)
-						arr[i] = Character.valueOf((char) (rand.nextInt(26) + 97));
-					a[n] = new String(arr);
-				}
-			} 
-			else if (array instanceof Integer[]) {
-				array = (E[]) new Integer[NEW_ARRAY_LEN];
-				Integer[] a = (Integer[]) array;
-				for(int i = 0; i < array.length; ++i)
-					a[i] = rand.nextInt();
-			} 
-			else if (array instanceof Short[]) {
-				array = (E[]) new Short[NEW_ARRAY_LEN];
-				Short[] a = (Short[]) array;
-				for(int i = 0; i < array.length; ++i)
-					a[i] = (short) (rand.nextInt(Short.MAX_VALUE << 1) - Short.MAX_VALUE);
-			} 
-			else if (array instanceof UUID[]) {
-				array = (E[]) new UUID[NEW_ARRAY_LEN];
-				UUID[] a = (UUID[]) array;
-				for(int i = 0; i < array.length; ++i)
-					a[i] = UUID.randomUUID();
-			} 
-			else if (array instanceof LocalDateTime[]) {
-				array = (E[]) new LocalDateTime[NEW_ARRAY_LEN];
-				LocalDateTime[] a = (LocalDateTime[]) array;
-				for(int i = 0; i < array.length; ++i)
-					a[i] = LocalDateTime.of(
-							LocalDate.of(rand.nextInt(60) + 1980, rand.nextInt(12) + 1, rand.nextInt(28) + 1)
-							, LocalTime.of(rand.nextInt(24), rand.nextInt(60), rand.nextInt(60), rand.nextInt(1000000000)));
-			} 
-			else if (array instanceof Long[]) {
-				array = (E[]) new Long[NEW_ARRAY_LEN];
-				Long[] a = (Long[]) array;
-				for(int i = 0; i < array.length; ++i)
-					a[i] = rand.nextLong();
-			} 
-			else if (array instanceof Float[]) {
-				array = (E[]) new Float[NEW_ARRAY_LEN];
-				Float[] a = (Float[]) array;
-				for(int i = 0; i < array.length; ++i)
-					a[i] = rand.nextFloat();
-			}  
-			else if (array instanceof Double[]) {
-				array = (E[]) new Double[NEW_ARRAY_LEN];
-				Double[] a = (Double[]) array;
-				for(int i = 0; i < array.length; ++i)
-					a[i] = rand.nextDouble();
-			} 
-			else if (array instanceof Character[]) {
-				array = (E[]) new Character[NEW_ARRAY_LEN];
-				Character[] a = (Character[]) array;
-				for(int i = 0; i < array.length; ++i)
-					a[i] = Character.valueOf((char) (rand.nextInt(93) + 33));
-			}
-			else if (array instanceof BigInteger[]) {
-				array = (E[]) new BigInteger[NEW_ARRAY_LEN];
-				BigInteger[] a = (BigInteger[]) array;
-				for(int i = 0; i < array.length; ++i)
-					a[i] = new BigInteger(1000, rand);
-			}
+			return randomize(array, new Random().nextLong());
+		}
+		
+		/**
+		 * Populates argument array with new and randomized data generated from argument seed.
+		 * Identical seeds produce identical arrays.
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @param seed
+		 * @return Newly populated argument array
+		 */
+		public static <E extends Comparable<? super E>> E[] randomize(E[] array, long seed) {
+			for (Type type : Type.values())
+				if (newArray(type).getClass() == array.getClass())
+					return DataGenerator.generate(type, NEW_ARRAY_LEN, seed);
 			return array;
 		}
 
@@ -380,6 +1263,7 @@ public interface UsesSorter {
 		 * @param b
 		 */
 		private static <E> void swap(E[] array, int a, int b) {
+			SortStats tracker = tracker();
 			int len = array.length;
 			if (a >= len || b >= len || a < 0 || b < 0) {
 				System.err.println(String.format("len: %d, a: %d, b: %d", len, a, b));
@@ -400,8 +1284,8 @@ public interface UsesSorter {
 		 * @return sorted argument array
 		 */
 		public static <E extends Comparable<? super E>> E[] insertionSort(E[] array) {
-			tracker.currentSort = Sort.INSERTION;
-			return tracker.track(Sorter::insertionSorter, array);
+			tracker().currentSort = Sort.INSERTION;
+			return tracker().track(Sorter::insertionSorter, array);
 		}
 
 		/**
@@ -413,8 +1297,8 @@ public interface UsesSorter {
 		 * @return kth smallest element of argument array
 		 */
 		public static <E extends Comparable<? super E>> E insertionSortK(E[] array, int k) {
-			tracker.currentSort = Sort.INSERTION_K;
-			return tracker.track(Sorter::insertionSorter, array)[k - 1];
+			tracker().currentSort = Sort.INSERTION_K;
+			return tracker().track(Sorter::insertionSorter, array)[k - 1];
 		}
 
 		/**
@@ -425,9 +1309,11 @@ public interface UsesSorter {
 		 * @return reference to the sorted array
 		 */
 		private static <E extends Comparable<? super E>> E[] insertionSorter(E[] array) {
+			SortStats tracker = tracker();
+			HotLoops loops = hotLoops(array);
 			for (int i = 1; i < array.length; i++) {  
 				E key = array[i];
-				int pos = Math.abs(binarySearch(array, 0, i, key) + 1);
+				int pos = Math.abs(loops.binarySearch(array, 0, i, key) + 1);
 				System.arraycopy(array, pos, array, pos + 1, i - pos);
 				array[pos] = key;
 				tracker.arrayAccesses += (i - pos + 2) << 2;
@@ -448,20 +1334,7 @@ public interface UsesSorter {
 		 * @return
 		 */
 		public static <E extends Comparable<? super E>> int binarySearch(E[] array, int left, int right, E key) {
-			int mid = 0, l = left, r = right - 1;
-			while (r >= l) {
-				mid = (r + l) >>> 1;
-				int res = array[mid].compareTo(key);
-				tracker.arrayAccesses++;
-				tracker.comparisons++;
-				if (res > 0) 
-					r = mid - 1;
-				else if (res < 0)
-					l = mid + 1;
-				else 
-					return mid;
-			}
-			return -(l + 1);
+			return hotLoops(array).binarySearch(array, left, right, key);
 		}
 
 		/**
@@ -472,11 +1345,12 @@ public interface UsesSorter {
 		 * @return sorted argument array
 		 */
 		public static <E extends Comparable<? super E>> E[] selectionSort(E[] array) {
-			int trials = NUM_TRIALS;
-			NUM_TRIALS = 10;
+			SortStats tracker = tracker();
+			int trials = tracker.trials;
+			tracker.trials = 10;
 			tracker.currentSort = Sort.SELECTION;
 			E[] res = tracker.track(Sorter::selectionSortHelper, array);
-			NUM_TRIALS = trials;
+			tracker.trials = trials;
 			return res;
 		}
 
@@ -488,11 +1362,12 @@ public interface UsesSorter {
 		 * @return kth smallest element of argument array
 		 */
 		public static <E extends Comparable<? super E>> E selectionSortK(E[] array, int k) {
-			int trials = NUM_TRIALS;
-			NUM_TRIALS = 10;
+			SortStats tracker = tracker();
+			int trials = tracker.trials;
+			tracker.trials = 10;
 			tracker.currentSort = Sort.SELECTION_K;
 			E res = tracker.trackK(Sorter::selectionSortHelperK, array, k);
-			NUM_TRIALS = trials;
+			tracker.trials = trials;
 			return res;
 		}
 		
@@ -527,6 +1402,7 @@ public interface UsesSorter {
 		 * @return reference to the sorted array
 		 */
 		private static <E extends Comparable<? super E>> E[] selectionSorterK(E[] array, int k) {
+			SortStats tracker = tracker();
 			int len = array.length - 1, indexMin = 0;
 			E minVal;
 			for (int i = 0; i < k; i++) { 
@@ -554,8 +1430,8 @@ public interface UsesSorter {
 		 * @return sorted argument array
 		 */
 		public static <E extends Comparable<? super E>> E[] bubbleSort(E[] array) {
-			tracker.currentSort = Sort.BUBBLE;
-			return tracker.track(Sorter::bubbleSorter, array);
+			tracker().currentSort = Sort.BUBBLE;
+			return tracker().track(Sorter::bubbleSorter, array);
 		}
 
 		/**
@@ -566,8 +1442,8 @@ public interface UsesSorter {
 		 * @return kth smallest element of argument array
 		 */
 		public static <E extends Comparable<? super E>> E bubbleSortK(E[] array, int k) {
-			tracker.currentSort = Sort.BUBBLE_K;
-			return tracker.trackK(Sorter::bubbleSorterK, array, k);
+			tracker().currentSort = Sort.BUBBLE_K;
+			return tracker().trackK(Sorter::bubbleSorterK, array, k);
 		}
 
 		/**
@@ -578,6 +1454,7 @@ public interface UsesSorter {
 		 * @return reference to the sorted array
 		 */
 		private static <E extends Comparable<? super E>> E[] bubbleSorter(E[] array) {
+			SortStats tracker = tracker();
 			int len = array.length - 1;
 			for (int i = -1; i < len; len--) { 
 				int swaps = 0;
@@ -602,6 +1479,7 @@ public interface UsesSorter {
 		 * @return reference to the sorted array
 		 */
 		private static <E extends Comparable<? super E>> E bubbleSorterK(E[] array, int k) {
+			SortStats tracker = tracker();
 			int len = array.length - 1, swaps = 0;
 			for (int i = -1; i < len && len >= k - 1; len--) { 
 				swaps = 0;
@@ -626,8 +1504,8 @@ public interface UsesSorter {
 		 * @return reference to the sorted array
 		 */
 		public static <E extends Comparable<? super E>> E[] quickSort(E[] array) {
-			tracker.currentSort = Sort.QUICK;
-			return tracker.track(Sorter::quickSorter, array);
+			tracker().currentSort = Sort.QUICK;
+			return tracker().track(Sorter::quickSorter, array);
 		}
 
 		/**
@@ -638,8 +1516,8 @@ public interface UsesSorter {
 		 * @return reference to the sorted array
 		 */
 		public static <E extends Comparable<? super E>> E quickSelectK(E[] array, int k) {
-			tracker.currentSort = Sort.QUICK_K;
-			return tracker.trackK(Sorter::quickSelectSorterK, array, k);
+			tracker().currentSort = Sort.QUICK_K;
+			return tracker().trackK(Sorter::quickSelectSorterK, array, k);
 		}
 
 		/**
@@ -674,9 +1552,15 @@ public interface UsesSorter {
 		 * @return reference to the sorted array
 		 */
 		private static <E extends Comparable<? super E>> E[] quickSortHelper(E[] array, int l, int h) {
-			if (h - l <= 1)
+			SortStats tracker = tracker();
+			HotLoops loops = hotLoops(array);
+			if (h - l < smallSortCutoff) {
+				loops.smallSort(array, l, h + 1);
 				return array;
+			}
 			int stack[] = new int[h - l + 1];
+			final long aux = intArrayBytes(stack.length);
+			tracker.allocate(aux);
 		    int top = -1; 
 		    stack[++top] = l; 
 		    stack[++top] = h; 
@@ -685,7 +1569,16 @@ public interface UsesSorter {
 		        h = stack[top--]; 
 		        l = stack[top--]; 
 			    tracker.arrayAccesses += 2;
-		        int p = partition(array, l, h); 
+			    if (h - l < smallSortCutoff) {
+			    	loops.smallSort(array, l, h + 1);
+			    	continue;
+			    }
+			    PhaseEvent event = PhaseEvent.start(tracker);
+			    final long before = tracker.arrayAccesses;
+		        int p = loops.partition(array, l, h); 
+		        if (h - l >= cacheBlock)
+		        	tracker.streamingAccesses += tracker.arrayAccesses - before;
+		        event.finish(tracker, "partition", 0, h - l + 1);
 		        if (p - 1 > l) { 
 		            stack[++top] = l; 
 		            stack[++top] = p - 1; 
@@ -697,6 +1590,7 @@ public interface UsesSorter {
 				    tracker.arrayAccesses += 2;
 		        } 
 		    } 
+		    tracker.release(aux);
 		    return array;
 		}
 
@@ -710,8 +1604,19 @@ public interface UsesSorter {
 		 * @return reference to the sorted array
 		 */
 		private static <E extends Comparable<? super E>> E[] quickSelectHelperK(E[] array, int l, int h, int k) {
-			while(true) {
-				int pivotIndex = partition(array, l, h);
+			SortStats tracker = tracker();
+			HotLoops loops = hotLoops(array);
+			for (int depth = 0; ; ++depth) {
+				if (h - l < smallSortCutoff) {
+					loops.smallSort(array, l, h + 1);
+					return array;
+				}
+				PhaseEvent event = PhaseEvent.start(tracker);
+				final long before = tracker.arrayAccesses;
+				int pivotIndex = loops.partition(array, l, h);
+				if (h - l >= cacheBlock)
+					tracker.streamingAccesses += tracker.arrayAccesses - before;
+				event.finish(tracker, "partition", depth, h - l + 1);
 				if (k == pivotIndex)
 					return array;
 				else if(k < pivotIndex)
@@ -721,77 +1626,105 @@ public interface UsesSorter {
 			}
 		}
 
-		 /**
-		  * Partition the argument array around the value at index argument r
-		  * 
-		  * @param <E>
-		  * @param array
-		  * @param l
-		  * @param r
-		  * @return
-		  */
-		private static <E extends Comparable<? super E>> int partition(E[] array, int l, int r) {
-//			E pivot = findMedianOfMedians(array, l, r);
-//			E pivot = array[l + ((r - l) >> 1)];
-			E pivot = array[r];
-			tracker.arrayAccesses++;
-			int pIndex = l;
-			for (int i = l; i < r; i++) {
-				if (array[i].compareTo(pivot) <= 0)
-					swap(array, i, pIndex++);
-				tracker.comparisons++;
-				tracker.arrayAccesses++;
+		/**
+		 * Quick sort array[l..h] with a three way partition around the median of its first, middle 
+		 * and last elements, see {@link HotLoops#partition3}, recursing into the smaller side of each 
+		 * partition.  Elements equal to the pivot are gathered between the returned bounds, so this is 
+		 * O(n log n) expected, including sorted input and runs of equal keys.
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @param l
+		 * @param h
+		 * @param loops hot loops of the array's element class
+		 */
+		private static <E extends Comparable<? super E>> void quickSort3(E[] array, int l, int h, HotLoops loops) {
+			while (h - l >= smallSortCutoff) {
+				int[] p = loops.partition3(array, l, h);
+				if (p[0] - l < h - p[1]) {
+					quickSort3(array, l, p[0] - 1, loops);
+					l = p[1] + 1;
+				} else {
+					quickSort3(array, p[1] + 1, h, loops);
+					h = p[0] - 1;
+				}
 			}
-			swap(array, pIndex, r);
-			return pIndex;
+			if (l < h)
+				loops.smallSort(array, l, h + 1);
 		}
 
 		/**
-		 * Perform a merge sort on argument array
+		 * Iterate argument array in ascending order, sorting only as much as has been consumed.  
+		 * The first k elements cost O(n + k log k) expected; stopping early skips the rest of the work.
+		 * The array is reordered in place and must not be modified while iterating.
 		 * 
 		 * @param <E>
 		 * @param array
-		 * @return reference to the sorted array
+		 * @return iterator over the elements in ascending order
 		 */
-		public static <E extends Comparable<? super E>> E[] mergeSort(E[] array) {
-			tracker.currentSort = Sort.MERGE;
-			return tracker.track(Sorter::mergeSorter, array);
+		public static <E extends Comparable<? super E>> Iterator<E> sortedIterator(E[] array) {
+			return new LazySortedArray<>(array).iterator();
 		}
-
+		
 		/**
-		 * Perform a merge sort on argument array up to the kth smallest element
+		 * Stream of argument array in ascending order, sorting only as much as is consumed.
+		 * See {@link #sortedIterator(Comparable[])}.
 		 * 
 		 * @param <E>
 		 * @param array
-		 * @return reference to the sorted array
+		 * @return sequential stream of the elements in ascending order
 		 */
-		public static <E extends Comparable<? super E>> E mergeSortK(E[] array, int k) {
-			tracker.currentSort = Sort.MERGE_K;
-			return tracker.trackK(Sorter::mergeSortHelperK, array, k);
+		public static <E extends Comparable<? super E>> Stream<E> sortedStream(E[] array) {
+			return StreamSupport.stream(Spliterators.spliterator(sortedIterator(array), array.length, 
+					Spliterator.ORDERED | Spliterator.SORTED | Spliterator.SIZED | Spliterator.NONNULL), false);
 		}
 
 		/**
-		 * Perform a multithreaded merge sort on argument array
+		 * Perform a merge sort on argument array
 		 * 
 		 * @param <E>
 		 * @param array
 		 * @return reference to the sorted array
 		 */
-		public static <E extends Comparable<? super E>> E[] mergeSortMulti(E[] array) {
-			tracker.currentSort = Sort.MT_MERGE;
-			return tracker.track(Sorter::multithreadedMergeSort, array);
+		public static <E extends Comparable<? super E>> E[] mergeSort(E[] array) {
+			tracker().currentSort = Sort.MERGE;
+			return tracker().track(Sorter::mergeSorter, array);
 		}
 
 		/**
-		 * Perform a multithreaded merge sort on argument array up to the kth smallest element
+		 * Perform a merge sort on argument array up to the kth smallest element
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @return reference to the sorted array
+		 */
+		public static <E extends Comparable<? super E>> E mergeSortK(E[] array, int k) {
+			tracker().currentSort = Sort.MERGE_K;
+			return tracker().trackK(Sorter::mergeSortHelperK, array, k);
+		}
+
+		/**
+		 * Perform a multithreaded merge sort on argument array
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @return reference to the sorted array
+		 */
+		public static <E extends Comparable<? super E>> E[] mergeSortMulti(E[] array) {
+			tracker().currentSort = Sort.MT_MERGE;
+			return tracker().track(Sorter::multithreadedMergeSort, array);
+		}
+
+		/**
+		 * Perform a multithreaded merge sort on argument array up to the kth smallest element
 		 * 
 		 * @param <E>
 		 * @param array
 		 * @return kth smallest element of the array
 		 */
 		public static <E extends Comparable<? super E>> E mergeSortMultiK(E[] array, int k) {
-			tracker.currentSort = Sort.MT_MERGE_K;
-			return tracker.trackK(Sorter::multithreadedMergeSortK, array, k);
+			tracker().currentSort = Sort.MT_MERGE_K;
+			return tracker().trackK(Sorter::multithreadedMergeSortK, array, k);
 		}
 		
 		/**
@@ -804,6 +1737,7 @@ public interface UsesSorter {
 		private static <E extends Comparable<? super E>> E[] multithreadedMergeSort(E[] array) {
 			ForkJoinMergeSort<E> sort = new ForkJoinMergeSort<>(array);
 			ForkJoinPool.commonPool().invoke(sort);
+			sort.addTo(tracker());
 			return sort.join();
 		}
 		
@@ -817,6 +1751,7 @@ public interface UsesSorter {
 		private static <E extends Comparable<? super E>> E multithreadedMergeSortK(E[] array, int k) {
 			ForkJoinMergeSort<E> sort = new ForkJoinMergeSort<>(array, k);
 			ForkJoinPool.commonPool().invoke(sort);
+			sort.addTo(tracker());
 			return sort.join()[k - 1];
 		}
 		
@@ -837,14 +1772,30 @@ public interface UsesSorter {
 		 * @param array
 		 * @return
 		 */
-		@SuppressWarnings("unchecked")
 		private static <E extends Comparable<? super E>> E[] mergeSorter(E[] array) {
+			return mergeSorter(array, hotLoops(array));
+		}
+		
+		/**
+		 * Algorithm for merge sort
+		 * @param <E>
+		 * @param array
+		 * @param loops hot loops of the array's element class
+		 * @return
+		 */
+		@SuppressWarnings("unchecked")
+		private static <E extends Comparable<? super E>> E[] mergeSorter(E[] array, HotLoops loops) {
+			SortStats tracker = tracker();
 			int len = array.length;
-			if (len < 2)
+			if (len <= smallSortCutoff) {
+				loops.smallSort(array, 0, len);
 				return array;
+			}
 			int mid = len >> 1;
 			E[] tempLeftArray = (E[]) new Comparable<?>[mid];
 			E[] tempRightArray = (E[]) new Comparable[len - mid];
+			final long aux = refArrayBytes(mid) + refArrayBytes(len - mid);
+			tracker.allocate(aux);
 			int index = 0;
 			for (int i = 0; i < mid; i++)
 				tempLeftArray[index++]  = array[i];
@@ -853,9 +1804,16 @@ public interface UsesSorter {
 				tempRightArray[index++]  = array[i];
 			tracker.swaps += len - 2;
 			tracker.arrayAccesses += (len - 1) << 1;
-			mergeSorter(tempLeftArray);
-			mergeSorter(tempRightArray);
-			return merge(tempLeftArray, tempRightArray, array);
+			mergeSorter(tempLeftArray, loops);
+			mergeSorter(tempRightArray, loops);
+			PhaseEvent event = PhaseEvent.start(tracker);
+			final long before = tracker.arrayAccesses;
+			loops.merge(tempLeftArray, tempRightArray, array);
+			if (len > cacheBlock)
+				tracker.streamingAccesses += tracker.arrayAccesses - before + ((len - 1) << 1);
+			event.finish(tracker, "merge", 32 - Integer.numberOfLeadingZeros(len - 1), len);
+			tracker.release(aux);
+			return array;
 		}
 		
 		/**
@@ -866,12 +1824,18 @@ public interface UsesSorter {
 		 */
 		@SuppressWarnings("unchecked")
 		private static <E extends Comparable<? super E>> E[] mergeSorterK(E[] array, int k) {
+			SortStats tracker = tracker();
+			HotLoops loops = hotLoops(array);
 			int len = array.length;
-			if (len < 2)
+			if (len <= smallSortCutoff) {
+				loops.smallSort(array, 0, len);
 				return array;
+			}
 			int mid = len >> 1;
 			E[] tempL = (E[]) new Comparable[mid];
 			E[] tempR = (E[]) new Comparable<?>[len - mid];
+			final long aux = refArrayBytes(mid) + refArrayBytes(len - mid);
+			tracker.allocate(aux);
 			int index = 0;
 			for (int i = 0; i < mid; i++)
 				tempL[index++]  = array[i];
@@ -880,38 +1844,15 @@ public interface UsesSorter {
 				tempR[index++]  = array[i];
 			tracker.swaps += len - 2;
 			tracker.arrayAccesses += (len - 1) << 1;
-			mergeSorter(tempL);
-			mergeSorter(tempR);
-			return mergeK(tempL, tempR, array, k);
-		}
-
-		/**
-		 * Combine two sorted arrays
-		 * 
-		 * @param <E>
-		 * @param tempL
-		 * @param tempR
-		 * @param array
-		 */
-		private static <E extends Comparable<? super E>> E[] merge(E[] tempL, E[] tempR, E[] array) {
-			int leftlen = tempL.length, rightlen = tempR.length;
-			int leftIndex = 0, rightIndex = 0, index = 0;
-			while (leftIndex < leftlen && rightIndex < rightlen) {
-				if (tempL[leftIndex].compareTo(tempR[rightIndex]) <= 0)
-					array[index++] = tempL[leftIndex++];
-				else
-					array[index++] = tempR[rightIndex++];
-				tracker.comparisons++;
-				tracker.arrayAccesses += 4;
-			}
-			while (leftIndex < leftlen)
-				array[index++] = tempL[leftIndex++];
-			tracker.swaps += leftlen = leftlen - leftIndex + 1;
-			tracker.arrayAccesses += leftlen << 1;
-			while (rightIndex < rightlen)
-				array[index++] = tempR[rightIndex++];
-			tracker.swaps += rightlen = rightlen - rightIndex + 1;
-			tracker.arrayAccesses += rightlen << 1;
+			mergeSorter(tempL, loops);
+			mergeSorter(tempR, loops);
+			PhaseEvent event = PhaseEvent.start(tracker);
+			final long before = tracker.arrayAccesses;
+			mergeK(tempL, tempR, array, k);
+			if (len > cacheBlock)
+				tracker.streamingAccesses += tracker.arrayAccesses - before + ((len - 1) << 1);
+			event.finish(tracker, "merge", 32 - Integer.numberOfLeadingZeros(len - 1), len);
+			tracker.release(aux);
 			return array;
 		}
 
@@ -924,6 +1865,7 @@ public interface UsesSorter {
 		 * @param array
 		 */
 		private static <E extends Comparable<? super E>> E[] mergeK(E[] tempL, E[] tempR, E[] array, int k) {
+			SortStats tracker = tracker();
 			int leftlen = tempL.length, rightlen = tempR.length;
 			int leftIndex = 0, rightIndex = 0, index = 0;
 			while (leftIndex < leftlen && rightIndex < rightlen) {
@@ -954,295 +1896,5614 @@ public interface UsesSorter {
 		}
 
 		/**
-		 * Perform a heap sort on argument array
+		 * Perform a cache aware multiway merge sort on argument array
 		 * 
 		 * @param <E>
 		 * @param array
 		 * @return reference to the sorted array
 		 */
-		public static <E extends Comparable<? super E>> E[] heapSort(E[] array) {
-			tracker.currentSort = Sort.HEAP;	
-			return tracker.track(Sorter::heapSorter, array);
+		public static <E extends Comparable<? super E>> E[] cacheMergeSort(E[] array) {
+			tracker().currentSort = Sort.CACHE_MERGE;
+			return tracker().track(a -> cacheMergeSorter(a, a.length), array);
 		}
 
 		/**
-		 * Perform a heap sort on argument array up to the kth smallest element
+		 * Perform a cache aware multiway merge sort on argument array up to the kth smallest element
 		 * 
 		 * @param <E>
 		 * @param array
-		 * @return reference to the sorted array
+		 * @return kth smallest element of the array
 		 */
-		public static <E extends Comparable<? super E>> E heapSortK(E[] array, int k) {
-			tracker.currentSort = Sort.HEAP_K;	
-			return tracker.trackK(Sorter::heapSorterK, array, k);
+		public static <E extends Comparable<? super E>> E cacheMergeSortK(E[] array, int k) {
+			tracker().currentSort = Sort.CACHE_MERGE_K;
+			return tracker().trackK((a, kk) -> cacheMergeSorter(a, kk)[kk - 1], array, k);
 		}
 		
 		/**
-		 * Algorithm for heap sort.  Modeled after https://www.geeksforgeeks.org/heap-sort/
+		 * Algorithm for cache aware merge sort.  Blocks of {@link #cacheBlock} elements are first quick 
+		 * sorted in place while they are cache resident, three ways so that repeated keys stay 
+		 * O(B log B), see {@link #quickSort3}, then up to {@link #mergeFanIn} sorted runs at a 
+		 * time are merged through a loser tree.  This makes about log_k(n / B) streaming passes over the 
+		 * whole array instead of the log2(n) of {@link #mergeSorter}.  Not stable.
 		 * 
 		 * @param <E>
 		 * @param array
-		 * @return reference to the sorted array
+		 * @param k number of leading positions the final pass must produce, array.length for a full sort
+		 * @return reference to the array, sorted in its first k positions
 		 */
-		private static <E extends Comparable<? super E>> E[] heapSorter(E[] array) {
-			int n = array.length;
-	        for (int i = (n >> 1) - 1; i >= 0; i--)
-	            heapify(array, n, i);
-	        for (int i = n - 1; i >= 0; i--) {
-	            swap(array, 0, i);
-	            heapify(array, i, 0);
-	        }
-	        return array;
+		@SuppressWarnings("unchecked")
+		private static <E extends Comparable<? super E>> E[] cacheMergeSorter(E[] array, int k) {
+			SortStats tracker = tracker();
+			HotLoops loops = hotLoops(array);
+			final int n = array.length, block = cacheBlock;
+			PhaseEvent event = PhaseEvent.start(tracker);
+			for (int l = 0; l < n; l += block)
+				quickSort3(array, l, Math.min(l + block, n) - 1, loops);
+			event.finish(tracker, "block sort", 0, n);
+			if (n <= block)
+				return array;
+			E[] src = array, dst = (E[]) new Comparable[n];
+			final long aux = refArrayBytes(n);
+			tracker.allocate(aux);
+			for (int run = block, pass = 1; run < n; ++pass) {
+				final int span = (int) Math.min((long) run * mergeFanIn, n);
+				final long before = tracker.arrayAccesses;
+				event = PhaseEvent.start(tracker);
+				for (int l = 0; l < n; l += span)
+					multiwayMerge(src, dst, l, Math.min(l + span, n), run, (span == n) ? k : n, loops);
+				event.finish(tracker, "multiway merge", pass, n);
+				tracker.streamingAccesses += tracker.arrayAccesses - before;
+				E[] t = src;
+				src = dst;
+				dst = t;
+				run = span;
+			}
+			if (src != array) {
+				System.arraycopy(src, 0, array, 0, k);
+				tracker.swaps += k;
+				tracker.arrayAccesses += (long) k << 1;
+				tracker.streamingAccesses += (long) k << 1;
+			}
+			tracker.release(aux);
+			return array;
 		}
 		
 		/**
-		 * Algorithm for heap sort k.  Modeled after https://www.geeksforgeeks.org/heap-sort/
+		 * Merge the sorted runs of argument length in src[l..r) into dst[l..r) with a loser tree, 
+		 * stopping once dst[l..l + limit) is filled
+		 * 
+		 * @param <E>
+		 * @param src
+		 * @param dst
+		 * @param l
+		 * @param r
+		 * @param run
+		 * @param limit
+		 * @param loops hot loops of the array's element class
+		 */
+		private static <E extends Comparable<? super E>> void multiwayMerge(E[] src, E[] dst, int l, int r, int run, int limit, HotLoops loops) {
+			SortStats tracker = tracker();
+			final int ways = (r - l + run - 1) / run, stop = Math.min(r, l + limit);
+			if (ways == 1) {
+				System.arraycopy(src, l, dst, l, stop - l);
+				tracker.swaps += stop - l;
+				tracker.arrayAccesses += (long) (stop - l) << 1;
+				return;
+			}
+			int[] pos = new int[ways], end = new int[ways], tree = new int[ways], winner = new int[ways << 1];
+			for (int i = 0; i < ways; ++i) {
+				pos[i] = l + i * run;
+				end[i] = Math.min(pos[i] + run, r);
+				winner[ways + i] = i;
+			}
+			for (int node = ways - 1; node > 0; --node) {
+				final int a = winner[node << 1], b = winner[(node << 1) + 1];
+				final boolean bFirst = loops.before(src, pos, end, b, a);
+				winner[node] = bFirst ? b : a;
+				tree[node] = bFirst ? a : b;
+			}
+			tree[0] = winner[1];
+			for (int out = l; out < stop; ++out) {
+				int w = tree[0];
+				dst[out] = src[pos[w]++];
+				for (int node = (w + ways) >> 1; node > 0; node >>= 1) {
+					final int o = tree[node];
+					if (loops.before(src, pos, end, o, w)) {
+						tree[node] = w;
+						w = o;
+					}
+				}
+				tree[0] = w;
+			}
+			tracker.swaps += stop - l;
+			tracker.arrayAccesses += (long) (stop - l) << 1;
+		}
+		
+		/**
+		 * Perform a parallel sample sort on argument array
 		 * 
 		 * @param <E>
 		 * @param array
 		 * @return reference to the sorted array
 		 */
-		private static <E extends Comparable<? super E>> E heapSorterK(E[] array, int k) {
-			int n = array.length;
-	        for (int i = (n >> 1) - 1; i >= 0; i--)
-	            heapify(array, n, i);
-	        for (int i = n - 1; i >= k - 1; i--) {
-	            swap(array, 0, i);
-	            heapify(array, i, 0);
-	        }
-	        return array[k - 1];
+		public static <E extends Comparable<? super E>> E[] sampleSort(E[] array) {
+			tracker().currentSort = Sort.SAMPLE;
+			return tracker().track(a -> sampleSorter(a, -1), array);
+		}
+
+		/**
+		 * Perform a parallel sample sort on argument array, only selecting within the bucket that 
+		 * holds the kth smallest element
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @return kth smallest element of the array
+		 */
+		public static <E extends Comparable<? super E>> E sampleSortK(E[] array, int k) {
+			tracker().currentSort = Sort.SAMPLE_K;
+			return tracker().trackK((a, kk) -> sampleSorter(a, kk)[kk - 1], array, k);
 		}
 		
 		/**
-		 * Algorithm used in heap sort.  Modeled after https://www.geeksforgeeks.org/heap-sort/
+		 * Algorithm for sample sort.  A random sample of {@link #SAMPLE_OVERSAMPLING} elements per bucket 
+		 * is sorted and every {@link #SAMPLE_OVERSAMPLING}th element becomes one of the p - 1 splitters, 
+		 * stored as an implicit search tree.  Stripes of the array are classified in parallel by walking 
+		 * the tree with branch free index arithmetic, the elements are scattered into their buckets, and 
+		 * the buckets are merge sorted in parallel.  Merge sort is used because duplicate heavy inputs 
+		 * gather equal keys into the same bucket, where quick sort degrades.  Arrays shorter than 
+		 * {@link #SAMPLE_SORT_MIN} are quick sorted directly.  The ratio of the largest bucket to the mean bucket is recorded as the 
+		 * load imbalance.
 		 * 
 		 * @param <E>
 		 * @param array
-		 * @param n
-		 * @param i
-		 */
-		private static <E extends Comparable<? super E>> void heapify(E[] array, int n, int i) {
-	        int largest = i;
-	        int l = (i << 1) + 1;
-	        int r = (i << 1) + 2;
-	        if (l < n) {
-	        	if (array[l].compareTo(array[largest]) > 0)
-	        		largest = l;
-	        	tracker.comparisons++;
-	        	tracker.arrayAccesses+= 2;
-	        }
-	        if (r < n) {
-	        	if (array[r].compareTo(array[largest])  > 0)
-	        		largest = r;
-	        	tracker.comparisons++;
-	        	tracker.arrayAccesses+= 2;
-	        }
-	        if (largest != i) {
-	        	swap(array, i, largest);
-	            heapify(array, n, largest); 
-	        }
-	    }
+		 * @param k 1 based rank to select, or -1 to sort the whole array
+		 * @return reference to the array, sorted, or with the kth smallest element at index k - 1
+		 */
+		@SuppressWarnings("unchecked")
+		private static <E extends Comparable<? super E>> E[] sampleSorter(E[] array, int k) {
+			SortStats tracker = tracker();
+			final int n = array.length;
+			if (n < SAMPLE_SORT_MIN)
+				return (k == -1) ? quickSortHelper(array, 0, n - 1) : quickSelectHelperK(array, 0, n - 1, k - 1);
+			final int workers = ForkJoinPool.commonPool().getParallelism();
+			final int p = Math.min(256, Math.min(Integer.highestOneBit(workers) << 2, Integer.highestOneBit(n / SAMPLE_OVERSAMPLING)));
+			final int levels = Integer.numberOfTrailingZeros(p);
+			
+			PhaseEvent event = PhaseEvent.start(tracker);
+			E[] sample = (E[]) new Comparable[p * SAMPLE_OVERSAMPLING];
+			SplittableRandom rand = new SplittableRandom(n);
+			for (int i = 0; i < sample.length; ++i)
+				sample[i] = array[rand.nextInt(n)];
+			tracker.arrayAccesses += sample.length << 1;
+			quickSortHelper(sample, 0, sample.length - 1);
+			E[] tree = (E[]) new Comparable[p];
+			fillSplitterTree(sample, tree, 1, 0, p);
+			event.finish(tracker, "sample", 0, sample.length);
+			
+			event = PhaseEvent.start(tracker);
+			final int stripes = Math.max(1, Math.min(workers, n / SAMPLE_SORT_MIN));
+			final int stripe = (n + stripes - 1) / stripes;
+			final byte[] oracle = new byte[n];
+			final int[][] counts = new int[stripes][p];
+			final long aux = refArrayBytes(sample.length) + refArrayBytes(p) + byteArrayBytes(n) + stripes * intArrayBytes(p) + refArrayBytes(n);
+			tracker.allocate(aux);
+			forEachTask(stripes, s -> {
+				SortStats t = tracker();
+				final int[] count = counts[s];
+				for (int i = s * stripe, end = Math.min(n, i + stripe); i < end; ++i) {
+					final E e = array[i];
+					int j = 1;
+					for (int level = 0; level < levels; ++level)
+						j = (j << 1) + ((e.compareTo(tree[j]) > 0) ? 1 : 0);
+					oracle[i] = (byte) (j - p);
+					count[j - p]++;
+				}
+				final int len = Math.min(n, (s + 1) * stripe) - s * stripe;
+				t.comparisons += (long) len * levels;
+				t.arrayAccesses += (long) len * (levels + 2);
+			});
+			event.finish(tracker, "classify", 0, n);
+			
+			final int[] bucketStart = new int[p + 1];
+			int largest = 0;
+			for (int b = 0, sum = 0; b < p; ++b) {
+				bucketStart[b] = sum;
+				int size = 0;
+				for (int s = 0; s < stripes; ++s) {
+					final int c = counts[s][b];
+					counts[s][b] = sum + size;
+					size += c;
+				}
+				sum += size;
+				largest = Math.max(largest, size);
+			}
+			bucketStart[p] = n;
+			tracker.loadImbalance = (double) largest * p / n;
+			
+			event = PhaseEvent.start(tracker);
+			final E[] buckets = (E[]) new Comparable[n];
+			forEachTask(stripes, s -> {
+				final int[] next = counts[s];
+				for (int i = s * stripe, end = Math.min(n, i + stripe); i < end; ++i)
+					buckets[next[oracle[i] & 0xFF]++] = array[i];
+				final int len = Math.min(n, (s + 1) * stripe) - s * stripe;
+				tracker().swaps += len;
+				tracker().arrayAccesses += (long) len * 3;
+			});
+			event.finish(tracker, "scatter", 0, n);
+			
+			event = PhaseEvent.start(tracker);
+			if (k != -1) {
+				int b = 0;
+				while (bucketStart[b + 1] < k)
+					++b;
+				E[] bucket = Arrays.copyOfRange(buckets, bucketStart[b], bucketStart[b + 1]);
+				array[k - 1] = mergeSorterK(bucket, k - bucketStart[b])[k - 1 - bucketStart[b]];
+				tracker.swaps += bucket.length;
+				tracker.arrayAccesses += (bucket.length << 1) + 2;
+			} else {
+				forEachTask(p, b -> {
+					final int from = bucketStart[b], to = bucketStart[b + 1];
+					E[] bucket = mergeSorter(Arrays.copyOfRange(buckets, from, to));
+					System.arraycopy(bucket, 0, array, from, to - from);
+					tracker().swaps += (to - from) << 1;
+					tracker().arrayAccesses += (long) (to - from) << 2;
+				});
+			}
+			event.finish(tracker, "bucket sort", 0, n);
+			tracker.release(aux);
+			return array;
+		}
+		
+		/**
+		 * Store the splitters of argument sorted sample in tree[node..] as an implicit binary search tree, 
+		 * whose children of node j are 2j and 2j + 1
+		 * 
+		 * @param <E>
+		 * @param sample
+		 * @param tree
+		 * @param node
+		 * @param lo first bucket (inclusive) under node
+		 * @param hi last bucket (exclusive) under node
+		 */
+		private static <E extends Comparable<? super E>> void fillSplitterTree(E[] sample, E[] tree, int node, int lo, int hi) {
+			if (hi - lo < 2)
+				return;
+			final int mid = (lo + hi) >>> 1;
+			tree[node] = sample[mid * SAMPLE_OVERSAMPLING - 1];
+			fillSplitterTree(sample, tree, node << 1, lo, mid);
+			fillSplitterTree(sample, tree, (node << 1) + 1, mid, hi);
+		}
+		
+		/**
+		 * Run tasks 0 to argument count - 1 on the common fork/join pool.  Each task counts into a 
+		 * tracker of its own, and the counts are added to the calling thread's tracker once all tasks 
+		 * have finished.  Bytes allocated by the pool's workers are measured by the caller's tracker 
+		 * directly, see {@link SortStats#prepTrials()}.
+		 * 
+		 * @param count
+		 * @param task
+		 */
+		private static void forEachTask(int count, IntConsumer task) {
+			final SortStats owner = tracker();
+			final SortStats[] local = new SortStats[count];
+			IntStream.range(0, count).parallel().forEach(t -> {
+				SortStats prev = trackers.get();
+				SortStats stats = local[t] = new SortStats();
+				stats.currentSort = owner.currentSort;
+				stats.currentType = owner.currentType;
+				trackers.set(stats);
+				try {
+					task.accept(t);
+				} finally {
+					trackers.set(prev);
+				}
+			});
+			long peaks = 0;
+			for (SortStats stats : local) {
+				owner.add(stats);
+				peaks += stats.peakAuxBytes;
+			}
+			owner.allocate(peaks);	// The tasks may all have held their peaks at once
+			owner.release(peaks);
+		}
 
 		/**
-		 * Finds the column of 5 median of medians of the argument array
+		 * Perform a counting sort on argument array.  Used for arrays of Short, Character, Integer or 
+		 * Long whose range of values is small, see {@link #countingKeys}; any other array is merge sorted.
 		 * 
 		 * @param <E>
 		 * @param array
-		 * @return Median value of the array
+		 * @return reference to the sorted array
 		 */
-		public static <E extends Comparable<? super E>> E medianOfMedians(E[] array, int k) {
-			tracker.currentSort = Sort.MEDIAN_OF_MEDIANS;
-			return tracker.trackK(Sorter::medianOfMediansHelper, array, k);
+		public static <E extends Comparable<? super E>> E[] countingSort(E[] array) {
+			tracker().currentSort = Sort.COUNTING;
+			return tracker().track(Sorter::countingSorter, array);
+		}
+
+		/**
+		 * Find the kth smallest element of argument array from a histogram of its values in 
+		 * O(n + range).  Used for arrays whose range of values is small, see {@link #countingKeys}; 
+		 * any other array falls back to merge sort k.
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @return kth smallest element of the array
+		 */
+		public static <E extends Comparable<? super E>> E countingSelectK(E[] array, int k) {
+			tracker().currentSort = Sort.COUNTING_K;
+			return tracker().trackK(Sorter::countingSelectorK, array, k);
 		}
 		
 		/**
-		 * Used by meadian of meadians
+		 * Algorithm for counting sort.  Stable: elements are scattered in input order to the start of 
+		 * their value's run, found from the prefix sums of the histogram.
 		 * 
 		 * @param <E>
 		 * @param array
-		 * @param k
-		 * @return
+		 * @return reference to the sorted array
 		 */
-		public static <E extends Comparable<? super E>> E medianOfMediansHelper(E[] array, int k) {
-			return medianOfMediansSorterK(array, 0, array.length - 1, k);
+		@SuppressWarnings("unchecked")
+		private static <E extends Comparable<? super E>> E[] countingSorter(E[] array) {
+			SortStats tracker = tracker();
+			final int n = array.length;
+			final int[] keys = new int[n];
+			final int[] counts = countingKeys(array, keys);
+			if (counts == null)
+				return mergeSorter(array);
+			final long aux = intArrayBytes(n) + intArrayBytes(counts.length) + refArrayBytes(n);
+			tracker.allocate(aux);
+			PhaseEvent event = PhaseEvent.start(tracker);
+			for (int v = 0, sum = 0; v < counts.length; ++v) {
+				final int c = counts[v];
+				counts[v] = sum;
+				sum += c;
+			}
+			final E[] out = (E[]) new Comparable[n];
+			for (int i = 0; i < n; ++i)
+				out[counts[keys[i]]++] = array[i];
+			System.arraycopy(out, 0, array, 0, n);
+			tracker.swaps += (long) n << 1;
+			tracker.arrayAccesses += (long) counts.length + ((long) n << 2);
+			event.finish(tracker, "scatter", 0, n);
+			tracker.release(aux);
+			return array;
 		}
 		
 		/**
-		 * Partition the argument array around the argument value.  Used by median of medians.
-		 *
+		 * Algorithm for counting select
+		 * 
 		 * @param <E>
-		 * @param list
-		 * @param left
-		 * @param right
-		 * @param val
-		 * @return
+		 * @param array
+		 * @param k
+		 * @return kth smallest element
 		 */
-		private static <E extends Comparable<? super E>> int partition(E[] list, int left, int right, E val) {
-	        int i;
-	        for (i = left; i < right; i++) {
-	            if (list[i].compareTo(val) == 0) {
-	            	tracker.arrayAccesses++;
-	            	tracker.comparisons++;
-	                break;
-	            }
-            	tracker.arrayAccesses++;
-            	tracker.comparisons++;
-	        }
-	        swap(list, i, right);
-	        E pivotValue = list[right];
-	        tracker.arrayAccesses++;
-	        int storeIndex = left;
-	        for (i = left; i <= right; i++) {
-	            if (list[i].compareTo(pivotValue) < 0) {
-	            	tracker.arrayAccesses++;
-	            	tracker.comparisons++;
-	                swap(list, storeIndex, i);
-	                storeIndex++;
-	            }
-            	tracker.arrayAccesses++;
-            	tracker.comparisons++;
-	        }
-	        swap(list, right, storeIndex);
-	        return storeIndex;
-	    }
+		private static <E extends Comparable<? super E>> E countingSelectorK(E[] array, int k) {
+			SortStats tracker = tracker();
+			final int n = array.length;
+			final int[] keys = new int[n];
+			final int[] counts = countingKeys(array, keys);
+			if (counts == null)
+				return mergeSortHelperK(array, k);
+			int v = 0;
+			for (int seen = counts[0]; seen < k; seen += counts[++v])
+				;
+			tracker.arrayAccesses += v + 1;
+			for (int i = 0; ; ++i) {
+				if (keys[i] == v) {
+					tracker.arrayAccesses += i + 2;
+					return array[i];
+				}
+			}
+		}
 		
 		/**
-		 * Find the median of argument array by pre-sorting.
+		 * Map argument array to counting keys and build their histogram.  Supported arrays are Short, 
+		 * Character, Integer or Long whose value range is at most {@link #COUNTING_MAX_RANGE} and no more 
+		 * than {@link #countingRangeFactor} times the length, so the histogram stays small next to the 
+		 * array.  Arrays of at least {@link #PARALLEL_HISTOGRAM_MIN} elements are counted in parallel 
+		 * stripes, each with its own histogram.
 		 * 
 		 * @param <E>
-		 * @param arr
-		 * @param l
-		 * @param len
-		 * @return
+		 * @param array
+		 * @param keys filled with each element's value minus the minimum value
+		 * @return histogram of keys, or null if argument array is not suited to counting
 		 */
-	    private static <E extends Comparable<? super E>> E findMedian(E arr[], int l, int len) {
-	        Arrays.sort(arr, l, l + len);
-	        tracker.arrayAccesses += (len >> 1) + 1;
-	        tracker.comparisons += len;
-	        return arr[l + ((len - 1) >> 1)];
-	    }
+		private static <E extends Comparable<? super E>> int[] countingKeys(E[] array, int[] keys) {
+			SortStats tracker = tracker();
+			final ToLongFunction<E> value = countingValue(array.getClass().getComponentType());
+			final int n = array.length;
+			if (value == null || n == 0)
+				return null;
+			long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+			for (E e : array) {
+				final long v = value.applyAsLong(e);
+				min = Math.min(min, v);
+				max = Math.max(max, v);
+			}
+			tracker.arrayAccesses += n;
+			tracker.comparisons += (long) n << 1;
+			final long range = max - min + 1;
+			if (range <= 0 || range > COUNTING_MAX_RANGE || range > (long) countingRangeFactor * n)
+				return null;
+			
+			PhaseEvent event = PhaseEvent.start(tracker);
+			final long base = min;
+			final int stripes = Math.max(1, Math.min(ForkJoinPool.commonPool().getParallelism(), n / PARALLEL_HISTOGRAM_MIN));
+			final int stripe = (n + stripes - 1) / stripes;
+			final int[][] counts = new int[stripes][(int) range];
+			forEachTask(stripes, s -> {
+				final int[] count = counts[s];
+				final int from = s * stripe, to = Math.min(n, from + stripe);
+				for (int i = from; i < to; ++i)
+					count[keys[i] = (int) (value.applyAsLong(array[i]) - base)]++;
+				tracker().arrayAccesses += (long) (to - from) << 1;
+			});
+			for (int s = 1; s < stripes; ++s)
+				for (int v = 0; v < range; ++v)
+					counts[0][v] += counts[s][v];
+			event.finish(tracker, "histogram", 0, n);
+			return counts[0];
+		}
 		
 		/**
-		 * Find the median of argument array by pre-sorting.
+		 * Numeric value of elements of argument class, or null if counting does not apply to it
 		 * 
 		 * @param <E>
-		 * @param arr
-		 * @param l
-		 * @param len
+		 * @param component
 		 * @return
 		 */
-	    private static <E extends Comparable<? super E>> E findMedianOfMedians(E arr[], int l, int r) {
-	    	int n = r - l + 1, i;
-	    	E median[] = (E[]) new Comparable[(n + 4) / 5];
-	    	for (i = 0; i < (n - 1) / 5; i++)
-	    		median[i] = findMedian(arr, l + (i * 5), 5);
-	    	if (i * 5 < n) {
-	    		median[i] = findMedian(arr, l + (i * 5), (n - 1) % 5);
-	    		++i;
-	    	}
-	    	return (i == 1) ? median[0] : findMedianOfMedians(median, 0, i - 1);
-	    }
-	    
-	    /**
-	     * Algorithm for finding the kth smallest element using the medians of medians strategy.
-		 * Modeled after https://www.geeksforgeeks.org/kth-smallestlargest-element-unsorted-array-set-3-worst-case-linear-time/
-	     * @param <E>
-	     * @param arr
-	     * @param l
-	     * @param r
-	     * @param k
-	     * @return
-	     */
-	    public static <E extends Comparable <? super E>> E medianOfMediansSorterK(E arr[], int l, int r, int k) {
-	        if (k > 0 && k <= r - l + 1) {
-	        	E medOfMed = findMedianOfMedians(arr, l, r);
-	            int pos = partition(arr, l, r, medOfMed);
-	            if (pos - l == k - 1)
-	                return arr[pos];
-	            else if (pos - l > k - 1)
-	                return medianOfMediansSorterK(arr, l, pos - 1, k);
-	            return medianOfMediansSorterK(arr, pos + 1, r, k - pos + l - 1);
-	        }
-	        return maxE(tracker.currentType);
-	    }
+		private static <E> ToLongFunction<E> countingValue(Class<?> component) {
+			if (component == Short.class)
+				return e -> (Short) e;
+			if (component == Character.class)
+				return e -> (Character) e;
+			if (component == Integer.class)
+				return e -> (Integer) e;
+			if (component == Long.class)
+				return e -> (Long) e;
+			return null;
+		}
 
 		/**
-		 * Uses {@link ForkJoinPool} paradigm to perform a multithreaded merge sort
-		 * on argument array
+		 * Perform a bucket sort on argument array.  Used for arrays of Float or Double, see 
+		 * {@link #bucketSortRange}; any other array is merge sorted.
 		 * 
-		 * @author Alex Feaser
+		 * @param <E>
+		 * @param array
+		 * @return reference to the sorted array
 		 */
-		@SuppressWarnings("serial")
+		public static <E extends Comparable<? super E>> E[] bucketSort(E[] array) {
+			tracker().currentSort = Sort.BUCKET;
+			return tracker().track(Sorter::bucketSorter, array);
+		}
+
+		/**
+		 * Find the kth smallest element of argument array by refining only the bucket holding rank k.  
+		 * Used for arrays of Float or Double; any other array falls back to merge sort k.
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @return kth smallest element of the array
+		 */
+		public static <E extends Comparable<? super E>> E bucketSelectK(E[] array, int k) {
+			tracker().currentSort = Sort.BUCKET_K;
+			return tracker().trackK(Sorter::bucketSelectorK, array, k);
+		}
+		
+		/**
+		 * Algorithm for bucket sort
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @return reference to the sorted array
+		 */
+		private static <E extends Comparable<? super E>> E[] bucketSorter(E[] array) {
+			final ToDoubleFunction<E> value = bucketValue(array.getClass().getComponentType());
+			if (value == null)
+				return mergeSorter(array);
+			bucketSortRange(array, 0, array.length, value, 0, hotLoops(array));
+			return array;
+		}
+		
+		/**
+		 * Algorithm for bucket select
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @param k
+		 * @return kth smallest element
+		 */
+		private static <E extends Comparable<? super E>> E bucketSelectorK(E[] array, int k) {
+			final ToDoubleFunction<E> value = bucketValue(array.getClass().getComponentType());
+			if (value == null)
+				return mergeSortHelperK(array, k);
+			return bucketSelectRange(array, k, value, 0);
+		}
+		
+		/**
+		 * Sort indices lo (inclusive) to hi (exclusive) of argument array by interpolating each value 
+		 * between the minimum and maximum into one of len / {@link #BUCKET_LOAD} buckets, scattering 
+		 * the elements into their buckets and sorting each bucket with the small sort kernel.  NaNs 
+		 * share a final bucket.  Buckets too large for the kernel, as skewed data produces, are bucket 
+		 * sorted again over their own range, and past {@link #BUCKET_MAX_DEPTH} levels, or if the range 
+		 * is empty or infinite, the elements are merge sorted instead.  At the top level the ratio of the 
+		 * largest bucket to the mean bucket is recorded as the load imbalance.
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @param lo
+		 * @param hi
+		 * @param value numeric value of an element
+		 * @param depth
+		 * @param loops hot loops of the array's element class
+		 */
+		@SuppressWarnings("unchecked")
+		private static <E extends Comparable<? super E>> void bucketSortRange(E[] array, int lo, int hi, ToDoubleFunction<E> value, int depth, HotLoops loops) {
+			SortStats tracker = tracker();
+			final int len = hi - lo;
+			if (len <= smallSortCutoff) {
+				loops.smallSort(array, lo, hi);
+				return;
+			}
+			final int[] keys = new int[len];
+			final int[] counts = (depth < BUCKET_MAX_DEPTH) ? bucketKeys(array, lo, hi, value, keys) : null;
+			if (counts == null) {
+				E[] run = mergeSorter(Arrays.copyOfRange(array, lo, hi), loops);
+				System.arraycopy(run, 0, array, lo, len);
+				tracker.swaps += len << 1;
+				tracker.arrayAccesses += (long) len << 2;
+				return;
+			}
+			final int buckets = counts.length - 1;
+			final long aux = intArrayBytes(len) + 2 * intArrayBytes(buckets + 2) + refArrayBytes(len);
+			tracker.allocate(aux);
+			
+			PhaseEvent event = PhaseEvent.start(tracker);
+			final int[] bucketStart = new int[buckets + 2];
+			int largest = 0;
+			for (int b = 0, sum = 0; b <= buckets; ++b) {
+				bucketStart[b] = sum;
+				sum += counts[b];
+				if (b < buckets)
+					largest = Math.max(largest, counts[b]);
+				counts[b] = bucketStart[b];
+			}
+			bucketStart[buckets + 1] = len;
+			if (depth == 0)
+				tracker.loadImbalance = (double) largest * buckets / len;
+			final E[] scattered = (E[]) new Comparable[len];
+			for (int i = 0; i < len; ++i)
+				scattered[counts[keys[i]]++] = array[lo + i];
+			System.arraycopy(scattered, 0, array, lo, len);
+			tracker.swaps += (long) len << 1;
+			tracker.arrayAccesses += buckets + ((long) len << 2);
+			event.finish(tracker, "scatter", depth, len);
+			
+			event = PhaseEvent.start(tracker);
+			for (int b = 0; b < buckets; ++b) {
+				final int from = lo + bucketStart[b], to = lo + bucketStart[b + 1];
+				if (to - from > 1)
+					bucketSortRange(array, from, to, value, depth + 1, loops);
+			}
+			event.finish(tracker, "bucket sort", depth, len);
+			tracker.release(aux);
+		}
+		
+		/**
+		 * Find the kth smallest element of argument array by bucketing it as {@link #bucketSortRange} 
+		 * does, then gathering only the bucket holding rank k and selecting within it
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @param k
+		 * @param value numeric value of an element
+		 * @param depth
+		 * @return kth smallest element
+		 */
+		@SuppressWarnings("unchecked")
+		private static <E extends Comparable<? super E>> E bucketSelectRange(E[] array, int k, ToDoubleFunction<E> value, int depth) {
+			SortStats tracker = tracker();
+			final int n = array.length;
+			if (n <= smallSortCutoff) {
+				SmallSort.sort(array, 0, n);
+				++tracker.arrayAccesses;
+				return array[k - 1];
+			}
+			final int[] keys = new int[n];
+			final int[] counts = (depth < BUCKET_MAX_DEPTH) ? bucketKeys(array, 0, n, value, keys) : null;
+			if (counts == null)
+				return mergeSortHelperK(array, k);
+			int b = 0, before = 0;
+			while (before + counts[b] < k)
+				before += counts[b++];
+			tracker.arrayAccesses += b + 1;
+			if (depth == 0)
+				tracker.loadImbalance = (double) Arrays.stream(counts, 0, counts.length - 1).max().getAsInt() * (counts.length - 1) / n;
+			
+			PhaseEvent event = PhaseEvent.start(tracker);
+			final E[] bucket = (E[]) new Comparable[counts[b]];
+			for (int i = 0, j = 0; j < bucket.length; ++i)
+				if (keys[i] == b)
+					bucket[j++] = array[i];
+			tracker.swaps += bucket.length;
+			tracker.arrayAccesses += n + (bucket.length << 1);
+			event.finish(tracker, "gather", depth, bucket.length);
+			return bucketSelectRange(bucket, k - before, value, depth + 1);
+		}
+		
+		/**
+		 * Map indices lo (inclusive) to hi (exclusive) of argument array to their buckets and count 
+		 * the elements in each.  Values are interpolated linearly between the minimum and maximum into 
+		 * len / {@link #BUCKET_LOAD} buckets, with one more bucket at the end for NaNs.
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @param lo
+		 * @param hi
+		 * @param value numeric value of an element
+		 * @param keys filled with each element's bucket
+		 * @return counts of each bucket, or null if the values span an empty or infinite range
+		 */
+		private static <E extends Comparable<? super E>> int[] bucketKeys(E[] array, int lo, int hi, ToDoubleFunction<E> value, int[] keys) {
+			SortStats tracker = tracker();
+			final int len = hi - lo;
+			double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+			for (int i = lo; i < hi; ++i) {
+				final double v = value.applyAsDouble(array[i]);
+				min = (v < min) ? v : min;
+				max = (v > max) ? v : max;
+			}
+			tracker.arrayAccesses += len;
+			tracker.comparisons += (long) len << 1;
+			final double span = max - min;
+			if (!(span > 0) || Double.isInfinite(span))
+				return null;
+			
+			PhaseEvent event = PhaseEvent.start(tracker);
+			final int buckets = Math.max(2, len / BUCKET_LOAD);
+			final double scale = buckets / span;
+			final int[] counts = new int[buckets + 1];
+			for (int i = 0; i < len; ++i) {
+				final double v = value.applyAsDouble(array[lo + i]);
+				final int b = (v != v) ? buckets : Math.min(buckets - 1, (int) ((v - min) * scale));
+				keys[i] = b;
+				counts[b]++;
+			}
+			tracker.arrayAccesses += (long) len << 1;
+			event.finish(tracker, "classify", 0, len);
+			return counts;
+		}
+		
+		/**
+		 * Numeric value of elements of argument class, or null if bucket sort does not apply to it
+		 * 
+		 * @param <E>
+		 * @param component
+		 * @return
+		 */
+		private static <E> ToDoubleFunction<E> bucketValue(Class<?> component) {
+			if (component == Float.class)
+				return e -> (Float) e;
+			if (component == Double.class)
+				return e -> (Double) e;
+			return null;
+		}
+
+		/**
+		 * Sort argument array with the engine {@link AutoPlanner} predicts to be fastest for it
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @return reference to the sorted array
+		 */
+		public static <E extends Comparable<? super E>> E[] autoSort(E[] array) {
+			tracker().currentSort = Sort.AUTO;
+			return tracker().track(Sorter::autoSorter, array);
+		}
+
+		/**
+		 * Find the kth smallest element of argument array with the engine {@link AutoPlanner} predicts 
+		 * to be fastest for it
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @return kth smallest element of the array
+		 */
+		public static <E extends Comparable<? super E>> E autoSelect(E[] array, int k) {
+			tracker().currentSort = Sort.AUTO_K;
+			return tracker().trackK(Sorter::autoSelector, array, k);
+		}
+		
+		/**
+		 * Algorithm for auto sort
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @return reference to the sorted array
+		 */
+		private static <E extends Comparable<? super E>> E[] autoSorter(E[] array) {
+			return Sorter.<E>sorterFor(AutoPlanner.plan(array, -1)).apply(array);
+		}
+		
+		/**
+		 * Algorithm for auto select
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @param k
+		 * @return kth smallest element
+		 */
+		private static <E extends Comparable<? super E>> E autoSelector(E[] array, int k) {
+			return Sorter.<E>selectorFor(AutoPlanner.plan(array, k)).apply(array, k);
+		}
+		
+		/**
+		 * Perform a heap sort on argument array
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @return reference to the sorted array
+		 */
+		public static <E extends Comparable<? super E>> E[] heapSort(E[] array) {
+			tracker().currentSort = Sort.HEAP;	
+			return tracker().track(Sorter::heapSorter, array);
+		}
+
+		/**
+		 * Perform a heap sort on argument array up to the kth smallest element
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @return reference to the sorted array
+		 */
+		public static <E extends Comparable<? super E>> E heapSortK(E[] array, int k) {
+			tracker().currentSort = Sort.HEAP_K;	
+			return tracker().trackK(Sorter::heapSorterK, array, k);
+		}
+		
+		/**
+		 * Algorithm for heap sort.  Modeled after https://www.geeksforgeeks.org/heap-sort/
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @return reference to the sorted array
+		 */
+		private static <E extends Comparable<? super E>> E[] heapSorter(E[] array) {
+			SortStats tracker = tracker();
+			int n = array.length;
+			HotLoops loops = hotLoops(array);
+			PhaseEvent event = PhaseEvent.start(tracker);
+	        for (int i = (n >> 1) - 1; i >= 0; i--)
+	            loops.heapify(array, n, i);
+	        event.finish(tracker, "build", 0, n);
+	        event = PhaseEvent.start(tracker);
+	        for (int i = n - 1; i >= 0; i--) {
+	            swap(array, 0, i);
+	            loops.heapify(array, i, 0);
+	        }
+	        event.finish(tracker, "extract", 0, n);
+	        return array;
+		}
+		
+		/**
+		 * Algorithm for heap sort k.  Modeled after https://www.geeksforgeeks.org/heap-sort/
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @return reference to the sorted array
+		 */
+		private static <E extends Comparable<? super E>> E heapSorterK(E[] array, int k) {
+			SortStats tracker = tracker();
+			int n = array.length;
+			HotLoops loops = hotLoops(array);
+			PhaseEvent event = PhaseEvent.start(tracker);
+	        for (int i = (n >> 1) - 1; i >= 0; i--)
+	            loops.heapify(array, n, i);
+	        event.finish(tracker, "build", 0, n);
+	        event = PhaseEvent.start(tracker);
+	        for (int i = n - 1; i >= k - 1; i--) {
+	            swap(array, 0, i);
+	            loops.heapify(array, i, 0);
+	        }
+	        event.finish(tracker, "extract", 0, n - k + 1);
+	        return array[k - 1];
+		}
+		
+		/**
+		 * Finds the column of 5 median of medians of the argument array
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @return Median value of the array
+		 */
+		public static <E extends Comparable<? super E>> E medianOfMedians(E[] array, int k) {
+			tracker().currentSort = Sort.MEDIAN_OF_MEDIANS;
+			return tracker().trackK(Sorter::medianOfMediansHelper, array, k);
+		}
+		
+		/**
+		 * Used by meadian of meadians
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @param k
+		 * @return
+		 */
+		public static <E extends Comparable<? super E>> E medianOfMediansHelper(E[] array, int k) {
+			return medianOfMediansSorterK(array, 0, array.length - 1, k);
+		}
+		
+		/**
+		 * Partition the argument array around the argument value.  Used by median of medians.
+		 *
+		 * @param <E>
+		 * @param list
+		 * @param left
+		 * @param right
+		 * @param val
+		 * @return
+		 */
+		private static <E extends Comparable<? super E>> int partition(E[] list, int left, int right, E val) {
+	        SortStats tracker = tracker();
+	        int i;
+	        for (i = left; i < right; i++) {
+	            if (list[i].compareTo(val) == 0) {
+	            	tracker.arrayAccesses++;
+	            	tracker.comparisons++;
+	                break;
+	            }
+            	tracker.arrayAccesses++;
+            	tracker.comparisons++;
+	        }
+	        swap(list, i, right);
+	        E pivotValue = list[right];
+	        tracker.arrayAccesses++;
+	        int storeIndex = left;
+	        for (i = left; i <= right; i++) {
+	            if (list[i].compareTo(pivotValue) < 0) {
+	            	tracker.arrayAccesses++;
+	            	tracker.comparisons++;
+	                swap(list, storeIndex, i);
+	                storeIndex++;
+	            }
+            	tracker.arrayAccesses++;
+            	tracker.comparisons++;
+	        }
+	        swap(list, right, storeIndex);
+	        return storeIndex;
+	    }
+		
+		/**
+		 * Find the median of argument array by pre-sorting.
+		 * 
+		 * @param <E>
+		 * @param arr
+		 * @param l
+		 * @param len
+		 * @return
+		 */
+	    private static <E extends Comparable<? super E>> E findMedian(E arr[], int l, int len) {
+	        SortStats tracker = tracker();
+	        Arrays.sort(arr, l, l + len);
+	        tracker.arrayAccesses += (len >> 1) + 1;
+	        tracker.comparisons += len;
+	        return arr[l + ((len - 1) >> 1)];
+	    }
+		
+		/**
+		 * Find the median of argument array by pre-sorting.
+		 * 
+		 * @param <E>
+		 * @param arr
+		 * @param l
+		 * @param len
+		 * @return
+		 */
+	    private static <E extends Comparable<? super E>> E findMedianOfMedians(E arr[], int l, int r) {
+	    	SortStats tracker = tracker();
+	    	int n = r - l + 1, i;
+	    	E median[] = (E[]) new Comparable[(n + 4) / 5];
+	    	final long aux = refArrayBytes(median.length);
+	    	tracker.allocate(aux);
+	    	for (i = 0; i < (n - 1) / 5; i++)
+	    		median[i] = findMedian(arr, l + (i * 5), 5);
+	    	if (i * 5 < n) {
+	    		median[i] = findMedian(arr, l + (i * 5), (n - 1) % 5);
+	    		++i;
+	    	}
+	    	E res = (i == 1) ? median[0] : findMedianOfMedians(median, 0, i - 1);
+	    	tracker.release(aux);
+	    	return res;
+	    }
+	    
+	    /**
+	     * Algorithm for finding the kth smallest element using the medians of medians strategy.
+		 * Modeled after https://www.geeksforgeeks.org/kth-smallestlargest-element-unsorted-array-set-3-worst-case-linear-time/
+	     * @param <E>
+	     * @param arr
+	     * @param l
+	     * @param r
+	     * @param k
+	     * @return
+	     */
+	    public static <E extends Comparable <? super E>> E medianOfMediansSorterK(E arr[], int l, int r, int k) {
+	        if (k > 0 && k <= r - l + 1) {
+	        	E medOfMed = findMedianOfMedians(arr, l, r);
+	            int pos = partition(arr, l, r, medOfMed);
+	            if (pos - l == k - 1)
+	                return arr[pos];
+	            else if (pos - l > k - 1)
+	                return medianOfMediansSorterK(arr, l, pos - 1, k);
+	            return medianOfMediansSorterK(arr, pos + 1, r, k - pos + l - 1);
+	        }
+	        return maxE(tracker().currentType);
+	    }
+
+		/**
+		 * Find several order statistics of argument array in one pass
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @param ks 1 based ranks, in any order
+		 * @return the kth smallest element for each argument k, in argument order
+		 */
+		public static <E extends Comparable<? super E>> E[] multiSelect(E[] array, int... ks) {
+			tracker().currentSort = Sort.MULTI_SELECT;
+			return tracker().track(a -> multiSelector(a, ks), array);
+		}
+		
+		/**
+		 * Algorithm for multi select.  Partitions like quick select, three ways around a median of three 
+		 * pivot, but only descends into the segments that contain a requested rank, so pivots are shared 
+		 * between ranks and m ranks cost about O(n log m) instead of O(n m).
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @param ks 1 based ranks
+		 * @return the kth smallest element for each argument k, in argument order
+		 */
+		@SuppressWarnings("unchecked")
+		private static <E extends Comparable<? super E>> E[] multiSelector(E[] array, int... ks) {
+			int[] ranks = Arrays.stream(ks).map(k -> k - 1).sorted().distinct().toArray();
+			for (int k : ranks)
+				if (k < 0 || k >= array.length)
+					throw new IllegalArgumentException(String.format("len: %d, k: %d", array.length, k + 1));
+			multiSelectHelper(array, 0, array.length - 1, ranks, 0, ranks.length - 1, hotLoops(array));
+			E[] res = (E[]) Array.newInstance(array.getClass().getComponentType(), ks.length);
+			for (int i = 0; i < ks.length; ++i)
+				res[i] = array[ks[i] - 1];
+			tracker().arrayAccesses += ks.length;
+			return res;
+		}
+		
+		/**
+		 * Place the elements of ranks[kl..kh] at their sorted positions within array[l..h].  Recurses 
+		 * into the smaller side of each partition and loops on the larger, so the depth stays O(log n).
+		 * 
+		 * @param <E>
+		 * @param array
+		 * @param l
+		 * @param h
+		 * @param ranks sorted, distinct 0 based ranks
+		 * @param kl
+		 * @param kh
+		 * @param loops hot loops of the array's element class
+		 */
+		private static <E extends Comparable<? super E>> void multiSelectHelper(E[] array, int l, int h, int[] ranks, int kl, int kh, HotLoops loops) {
+			while (kl <= kh && l < h) {
+				if (h - l < smallSortCutoff) {
+					loops.smallSort(array, l, h + 1);
+					return;
+				}
+				int[] p = loops.partition3(array, l, h);
+				int lo = Arrays.binarySearch(ranks, kl, kh + 1, p[0]);
+				int hi = Arrays.binarySearch(ranks, kl, kh + 1, p[1]);
+				int leftEnd = ((lo >= 0) ? lo : -(lo + 1)) - 1;
+				int rightStart = (hi >= 0) ? hi + 1 : -(hi + 1);
+				if (p[0] - l < h - p[1]) {
+					multiSelectHelper(array, l, p[0] - 1, ranks, kl, leftEnd, loops);
+					l = p[1] + 1;
+					kl = rightStart;
+				} else {
+					multiSelectHelper(array, p[1] + 1, h, ranks, rightStart, kh, loops);
+					h = p[0] - 1;
+					kh = leftEnd;
+				}
+			}
+		}
+		
+		/**
+		 * 1 based ranks of the {@link Distribution#PERCENTILES} of an array of length n
+		 * 
+		 * @param n
+		 * @return
+		 */
+		private static int[] percentileRanks(int n) {
+			return Arrays.stream(Distribution.PERCENTILES).mapToInt(p -> Math.max(1, (int) Math.ceil(p * n))).toArray();
+		}
+
+		/**
+		 * Sort every array of argument batch in one call.  Arrays are split into contiguous groups of 
+		 * about equal total length, one per task, and the groups are sorted in parallel.  Each task 
+		 * reuses one scratch buffer for all of its arrays, which are sorted with the small range kernels 
+		 * and merged bottom up.  The batch is recorded as a single trial of {@link Sort#SORT_ALL} whose 
+		 * n is the total number of elements.
+		 * 
+		 * @param <E>
+		 * @param arrays
+		 * @return reference to argument arrays, each sorted
+		 */
+		@SuppressWarnings("unchecked")
+		public static <E extends Comparable<? super E>> E[][] sortAll(E[][] arrays) {
+			final int[] offsets = new int[arrays.length + 1];
+			for (int i = 0; i < arrays.length; ++i)
+				offsets[i + 1] = Math.addExact(offsets[i], arrays[i].length);
+			final int[] bounds = segmentTasks(offsets);
+			trackBatch(offsets[arrays.length], () -> forEachTask(bounds.length - 1, t -> {
+				E[] scratch = (E[]) new Comparable[maxSegment(offsets, bounds[t], bounds[t + 1])];
+				for (int i = bounds[t]; i < bounds[t + 1]; ++i)
+					segmentSort(arrays[i], 0, arrays[i].length, scratch, hotLoops(arrays[i]));
+			}));
+			return arrays;
+		}
+		
+		/**
+		 * Run argument batch sort once, recorded as a single trial of {@link Sort#SORT_ALL} of the 
+		 * calling thread's current type
+		 * 
+		 * @param n total number of elements in the batch
+		 * @param batch
+		 */
+		private static void trackBatch(int n, Runnable batch) {
+			SortStats tracker = tracker();
+			tracker.currentSort = Sort.SORT_ALL;
+			tracker.prepTrials();
+			tracker.prep(n);
+			batch.run();
+			tracker.endTimer();
+			tracker.endAllocation();
+			tracker.accumulate();
+			tracker.end(tracker.currentType);
+		}
+		
+		/**
+		 * Sort the rows of a table held as columns.  Rows are ordered lexicographically by the key 
+		 * columns: the whole table by the first key, then each run of rows equal in the first key by the 
+		 * second, and so on, so later keys are only compared to break ties.  Once the order is known every 
+		 * key and payload column is permuted in place in one pass, without building row objects.  The 
+		 * sort is stable.  Recorded as a single trial of {@link Sort#COLUMNS}.  See {@link ColumnSort}.
+		 * 
+		 * @param keys key columns, most significant first: int[], long[], short[], char[], byte[], float[], 
+		 * double[] or Comparable[]
+		 * @param payload columns carried along with their rows: any of the key column types or Object[]
+		 * @return row order applied, the original index of each row now at that position
+		 */
+		public static int[] sortColumns(Object[] keys, Object... payload) {
+			SortStats tracker = tracker();
+			tracker.currentSort = Sort.COLUMNS;
+			if (keys.length == 0)
+				throw new IllegalArgumentException("No key columns");
+			final int n = Array.getLength(keys[0]);
+			for (Object column : keys)
+				if (Array.getLength(column) != n)
+					throw new IllegalArgumentException(String.format("len: %d, key column len: %d", n, Array.getLength(column)));
+			for (Object column : payload)
+				if (Array.getLength(column) != n)
+					throw new IllegalArgumentException(String.format("len: %d, payload column len: %d", n, Array.getLength(column)));
+			tracker.prepTrials();
+			tracker.prep(n);
+			final int[] order = ColumnSort.sort(keys, payload);
+			tracker.endTimer();
+			tracker.endAllocation();
+			tracker.accumulate();
+			tracker.end(tracker.currentType);
+			return order;
+		}
+		
+		/**
+		 * Sort each segment values[offsets[i]..offsets[i + 1]) of argument flat array independently, 
+		 * in parallel.  See {@link #sortAll(Comparable[][])}.  Recorded the same way, as a single trial 
+		 * of {@link Sort#SORT_ALL} whose n is the total length of the segments; the primitive kernels 
+		 * count no comparisons or accesses, so the trial holds the time and allocation.
+		 * 
+		 * @param values
+		 * @param offsets non decreasing segment boundaries, one more than the number of segments
+		 */
+		public static void sortSegments(int[] values, int[] offsets) {
+			checkSegments(values.length, offsets);
+			trackBatch(offsets[offsets.length - 1] - offsets[0], () -> segmentSorter(values, offsets));
+		}
+		
+		/**
+		 * Sort each segment values[offsets[i]..offsets[i + 1]) of argument flat array independently, 
+		 * in parallel.  See {@link #sortSegments(int[], int[])}.
+		 * 
+		 * @param values
+		 * @param offsets non decreasing segment boundaries, one more than the number of segments
+		 */
+		public static void sortSegments(long[] values, int[] offsets) {
+			checkSegments(values.length, offsets);
+			trackBatch(offsets[offsets.length - 1] - offsets[0], () -> segmentSorter(values, offsets));
+		}
+		
+		/**
+		 * Sort each segment of argument flat array in the order of {@link Float#compare}.  
+		 * See {@link #sortSegments(int[], int[])}.
+		 * 
+		 * @param values
+		 * @param offsets
+		 */
+		public static void sortSegments(float[] values, int[] offsets) {
+			checkSegments(values.length, offsets);
+			trackBatch(offsets[offsets.length - 1] - offsets[0], () -> {
+				int[] keys = PrimitiveSort.toKeys(values);
+				segmentSorter(keys, offsets);
+				PrimitiveSort.fromKeys(keys, values);
+			});
+		}
+		
+		/**
+		 * Sort each segment of argument flat array in the order of {@link Double#compare}.  
+		 * See {@link #sortSegments(int[], int[])}.
+		 * 
+		 * @param values
+		 * @param offsets
+		 */
+		public static void sortSegments(double[] values, int[] offsets) {
+			checkSegments(values.length, offsets);
+			trackBatch(offsets[offsets.length - 1] - offsets[0], () -> {
+				long[] keys = PrimitiveSort.toKeys(values);
+				segmentSorter(keys, offsets);
+				PrimitiveSort.fromKeys(keys, values);
+			});
+		}
+		
+		/**
+		 * Algorithm for segmented sort
+		 * 
+		 * @param values
+		 * @param offsets
+		 */
+		private static void segmentSorter(int[] values, int[] offsets) {
+			final int[] bounds = segmentTasks(offsets);
+			forEachTask(bounds.length - 1, t -> {
+				int[] scratch = new int[maxSegment(offsets, bounds[t], bounds[t + 1])];
+				for (int i = bounds[t]; i < bounds[t + 1]; ++i) {
+					if (offsets[i + 1] - offsets[i] <= SmallSort.INSERTION_MAX)
+						SmallSort.sort(values, offsets[i], offsets[i + 1]);
+					else
+						PrimitiveSort.mergeSort(values, offsets[i], offsets[i + 1], scratch);
+				}
+			});
+		}
+		
+		/**
+		 * Algorithm for segmented sort
+		 * 
+		 * @param values
+		 * @param offsets
+		 */
+		private static void segmentSorter(long[] values, int[] offsets) {
+			final int[] bounds = segmentTasks(offsets);
+			forEachTask(bounds.length - 1, t -> {
+				long[] scratch = new long[maxSegment(offsets, bounds[t], bounds[t + 1])];
+				for (int i = bounds[t]; i < bounds[t + 1]; ++i) {
+					if (offsets[i + 1] - offsets[i] <= SmallSort.INSERTION_MAX)
+						SmallSort.sort(values, offsets[i], offsets[i + 1]);
+					else
+						PrimitiveSort.mergeSort(values, offsets[i], offsets[i + 1], scratch);
+				}
+			});
+		}
+		
+		private static void checkSegments(int length, int[] offsets) {
+			if (offsets.length == 0 || offsets[0] < 0 || offsets[offsets.length - 1] > length)
+				throw new IllegalArgumentException(String.format("len: %d, offsets: %d", length, offsets.length));
+			for (int i = 1; i < offsets.length; ++i)
+				if (offsets[i] < offsets[i - 1])
+					throw new IllegalArgumentException(String.format("offsets[%d] < offsets[%d]", i, i - 1));
+		}
+		
+		/**
+		 * Split the segments of argument boundaries into contiguous groups of about equal total length, 
+		 * a few per worker of the common pool
+		 * 
+		 * @param offsets
+		 * @return first segment of each group, followed by the number of segments
+		 */
+		private static int[] segmentTasks(int[] offsets) {
+			final int segments = offsets.length - 1;
+			final int tasks = Math.max(1, Math.min(segments, ForkJoinPool.commonPool().getParallelism() << 2));
+			final long from = offsets[0], total = offsets[segments] - from;
+			int[] bounds = new int[tasks + 1];
+			for (int t = 1; t < tasks; ++t) {
+				int b = Arrays.binarySearch(offsets, (int) (from + total * t / tasks));
+				bounds[t] = Math.max(bounds[t - 1], Math.min(segments, (b < 0) ? -(b + 1) : b));
+			}
+			bounds[tasks] = segments;
+			return bounds;
+		}
+		
+		private static int maxSegment(int[] offsets, int from, int to) {
+			int max = 0;
+			for (int i = from; i < to; ++i)
+				max = Math.max(max, offsets[i + 1] - offsets[i]);
+			return max;
+		}
+		
+		/**
+		 * Sort indices from (inclusive) to to (exclusive) of argument array with {@link SmallSort} 
+		 * blocks merged bottom up through argument scratch buffer
+		 * 
+		 * @param <E>
+		 * @param a
+		 * @param from
+		 * @param to
+		 * @param scratch at least to - from long
+		 * @param loops hot loops of the array's element class
+		 */
+		private static <E extends Comparable<? super E>> void segmentSort(E[] a, int from, int to, E[] scratch, HotLoops loops) {
+			SortStats tracker = tracker();
+			final int n = to - from, run = SmallSort.NETWORK_MAX;
+			if (n <= SmallSort.INSERTION_MAX) {
+				loops.smallSort(a, from, to);
+				return;
+			}
+			for (int i = from; i < to; i += run)
+				loops.smallSort(a, i, Math.min(i + run, to));
+			E[] src = a, dst = scratch;
+			int srcOff = from, dstOff = 0;
+			for (int w = run; w < n; w <<= 1) {
+				for (int i = 0; i < n; i += w << 1)
+					loops.mergeRuns(src, srcOff + i, srcOff + Math.min(i + w, n), srcOff + Math.min(i + (w << 1), n), dst, dstOff + i);
+				E[] t = src;
+				src = dst;
+				dst = t;
+				int o = srcOff;
+				srcOff = dstOff;
+				dstOff = o;
+			}
+			if (src != a) {
+				System.arraycopy(src, srcOff, a, from, n);
+				tracker.swaps += n;
+				tracker.arrayAccesses += n << 1;
+			}
+		}
+		
+		/**
+		 * Seeded, parallel generation of the randomized input arrays used by {@link Sorter}.
+		 * <br>
+		 * <br>The array is cut into fixed size chunks and every chunk draws from its own 
+		 * {@link SplittableRandom} derived from the seed and the chunk index.  Chunks are filled in 
+		 * parallel, and since neither the chunking nor the per-chunk generators depend on the number of 
+		 * threads, one seed always produces the same array.
+		 * 
+		 * @author Alex Feaser
+		 */
+		private static class DataGenerator {
+			private static final int CHUNK = 1 << 14;
+			private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+			
+			/**
+			 * Generate n elements of argument type from argument seed
+			 * 
+			 * @param <E>
+			 * @param type
+			 * @param n
+			 * @param seed
+			 * @return newly populated array
+			 */
+			@SuppressWarnings("unchecked")
+			private static <E extends Comparable<? super E>> E[] generate(Type type, int n, long seed) {
+				E[] array = (E[]) Array.newInstance(newArray(type).getClass().getComponentType(), n);
+				int chunks = (n + CHUNK - 1) / CHUNK;
+				IntStream.range(0, chunks).parallel().forEach(c -> 
+					fill(type, array, c * CHUNK, Math.min(n, (c + 1) * CHUNK), 
+							new SplittableRandom(seed + (c + 1) * GOLDEN_GAMMA)));
+				return array;
+			}
+			
+			/**
+			 * Fill indices from (inclusive) to to (exclusive) of argument array
+			 * 
+			 * @param type
+			 * @param array
+			 * @param from
+			 * @param to
+			 * @param rand
+			 */
+			private static void fill(Type type, Object[] array, int from, int to, SplittableRandom rand) {
+				switch (type) {
+				case SHORTS:
+					for (int i = from; i < to; ++i)
+						array[i] = (short) (rand.nextInt(Short.MAX_VALUE << 1) - Short.MAX_VALUE);
+					break;
+				case INTEGERS:
+					for (int i = from; i < to; ++i)
+						array[i] = rand.nextInt();
+					break;
+				case LONGS:
+					for (int i = from; i < to; ++i)
+						array[i] = rand.nextLong();
+					break;
+				case FLOATS:
+					for (int i = from; i < to; ++i)
+						array[i] = rand.nextFloat();
+					break;
+				case DOUBLES:
+					for (int i = from; i < to; ++i)
+						array[i] = rand.nextDouble();
+					break;
+				case CHARACTERS:
+					for (int i = from; i < to; ++i)
+						array[i] = (char) (rand.nextInt(93) + 33);
+					break;
+				case STRINGS:
+					byte[] chars = new byte[STRING_LEN];
+					for (int i = from; i < to; ++i)
+						array[i] = randomString(rand, chars);
+					break;
+				case BIGINTEGERS:
+					byte[] magnitude = new byte[1000 / 8];
+					for (int i = from; i < to; ++i) {
+						rand.nextBytes(magnitude);
+						array[i] = new BigInteger(1, magnitude);
+					}
+					break;
+				case LOCALDATETIMES:
+					for (int i = from; i < to; ++i)
+						array[i] = LocalDateTime.of(
+								LocalDate.of(rand.nextInt(60) + 1980, rand.nextInt(12) + 1, rand.nextInt(28) + 1)
+								, LocalTime.of(rand.nextInt(24), rand.nextInt(60), rand.nextInt(60), rand.nextInt(1000000000)));
+					break;
+				case UUIDS:
+					for (int i = from; i < to; ++i)
+						array[i] = new UUID((rand.nextLong() & ~0xF000L) | 0x4000L, 
+								(rand.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L);
+					break;
+				}
+			}
+			
+			/**
+			 * Build a string of {@link Sorter#STRING_LEN} lowercase letters from bulk random bits.  Each 
+			 * 64 bit draw is cut into twelve 5 bit values and values of 26 and up are rejected, so the 
+			 * letters stay uniform at roughly one draw per nine letters.
+			 * 
+			 * @param rand
+			 * @param chars scratch buffer of length {@link Sorter#STRING_LEN}
+			 * @return
+			 */
+			private static String randomString(SplittableRandom rand, byte[] chars) {
+				int len = 0;
+				while (len < chars.length) {
+					long bits = rand.nextLong();
+					for (int j = 0; j < 12 && len < chars.length; ++j, bits >>>= 5) {
+						int c = (int) (bits & 0x1F);
+						if (c < 26)
+							chars[len++] = (byte) ('a' + c);
+					}
+				}
+				return new String(chars, StandardCharsets.ISO_8859_1);
+			}
+		}
+
+		/**
+		 * Runs the size &times; type &times; algorithm matrix of {@link #demoAll()} on a pool of workers.
+		 * Configurations are independent, so each (n, type, algorithm) is scheduled as its own job,
+		 * longest estimated job first, and results are written back in matrix order.
+		 * <br>
+		 * <br>Jobs run either on worker threads, each with its own tracker, or in forked JVMs
+		 * optionally pinned to a single core with taskset.
+		 * 
+		 * @author Alex Feaser
+		 */
+		private static class MatrixRunner {
+			private static final String STATS_PREFIX = "#STATS ";
+			private final int workers;
+			private final boolean fork;
+			private final boolean pin;
+			private final BlockingQueue<Integer> cores = new LinkedBlockingQueue<>();
+			
+			/**
+			 * Input shared by every job of one (n, type) configuration
+			 */
+			private static class Config {
+				private final int n;
+				private final Type type;
+				private final long seed;
+				private final List<Job> jobs = new ArrayList<>();
+				private Comparable<?>[] input;
+				private int remaining;
+				
+				private Config(int n, Type type, long seed) {
+					this.n = n;
+					this.type = type;
+					this.seed = seed;
+				}
+				
+				/**
+				 * Generate the input on first use, so only configurations in flight hold an array
+				 */
+				@SuppressWarnings("unchecked")
+				private synchronized <E extends Comparable<? super E>> E[] input() {
+					if (input == null)
+						input = DataGenerator.generate(type, n, seed);
+					return (E[]) input;
+				}
+				
+				/**
+				 * Drop the input once the last job of this configuration has finished
+				 */
+				private synchronized void release() {
+					if (--remaining == 0)
+						input = null;
+				}
+			}
+			
+			/**
+			 * A single algorithm run against a {@link Config}
+			 */
+			private static class Job {
+				private final Config config;
+				private final Sort sort;
+				private final double cost;
+				private Future<String> result;
+				
+				private Job(Config config, Sort sort) {
+					this.config = config;
+					this.sort = sort;
+					this.cost = estimatedCost(sort, config.n, config.type);
+				}
+			}
+			
+			private MatrixRunner(int workers, boolean fork, boolean pin) {
+				this.workers = Math.max(1, workers);
+				this.fork = fork;
+				this.pin = pin;
+				for (int i = 0; i < this.workers; ++i)
+					cores.add(i % Runtime.getRuntime().availableProcessors());
+			}
+			
+			/**
+			 * Run every algorithm of {@link Sorter#sortsFor(int, Type)} for each size and type, writing each 
+			 * configuration's results to standard out and output.txt in matrix order
+			 * 
+			 * @param sizes
+			 * @param types
+			 * @param seed
+			 */
+			private void run(int[] sizes, Type[] types, long seed) {
+				List<Config> configs = new ArrayList<>();
+				List<Job> jobs = new ArrayList<>();
+				for (int n : sizes) {
+					for (Type type : types) {
+						if (n >= 1000000 && type == Type.CHARACTERS)
+							continue;	// Characters >= 1 million goes infinite on median of medians?
+						Config config = new Config(n, type, seed ^ ((long) n << 8) ^ type.ordinal());
+						for (Sort sort : sortsFor(n, type))
+							config.jobs.add(new Job(config, sort));
+						config.remaining = config.jobs.size();
+						configs.add(config);
+						jobs.addAll(config.jobs);
+					}
+				}
+				if (workers > 1)
+					jobs.sort(Comparator.comparingDouble((Job j) -> j.cost).reversed());
+				ExecutorService pool = Executors.newFixedThreadPool(workers);
+				for (Job job : jobs)
+					job.result = pool.submit(() -> execute(job));
+				pool.shutdown();
+				StringBuilder sb = new StringBuilder();
+				for (Config config : configs) {
+					sb.append(String.format("%n%n  ~~~~~~~~  %8s:  %-12s  ~~~~~~~~%n%n", 
+							config.type, String.format("n = %d", config.n)));
+					if (config.n <= 100) 
+						sb.append(String.format("%-12s%s%n", "Unsorted: ", 
+								Arrays.deepToString(DataGenerator.generate(config.type, config.n, config.seed))));
+					for (Job job : config.jobs) {
+						try {
+							sb.append(job.result.get());
+						} catch (InterruptedException | ExecutionException e) {
+							e.printStackTrace();
+						}
+					}
+					sb.append("\n");
+					System.out.println(sb.toString());
+					try {
+						Files.write(Paths.get("output.txt"), sb.toString().getBytes(), StandardOpenOption.APPEND);
+					} catch (IOException e) {
+						e.printStackTrace();
+					}
+					sb.setLength(0);
+				}
+			}
+			
+			/**
+			 * Run argument job on the current thread or in a forked JVM
+			 * 
+			 * @param job
+			 * @return formatted trial results
+			 */
+			private String execute(Job job) throws IOException, InterruptedException {
+				if (fork)
+					return executeForked(job);
+				try {
+					tracker().currentType = job.config.type;
+					return runSort(job.sort, job.config.input().clone()).toString();
+				} finally {
+					job.config.release();
+				}
+			}
+			
+			/**
+			 * Run argument job in a child JVM and record the averages it reports
+			 * 
+			 * @param job
+			 * @return formatted trial results
+			 */
+			private String executeForked(Job job) throws IOException, InterruptedException {
+				int core = cores.take();
+				try {
+					List<String> cmd = new ArrayList<>();
+					if (pin) 
+						cmd.addAll(Arrays.asList("taskset", "-c", Integer.toString(core)));
+					cmd.addAll(javaCommand(String.format("--job=%d:%s:%s:%d", job.config.n, job.config.type, job.sort, job.config.seed)));
+					Process process = new ProcessBuilder(cmd).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+					StringBuilder sb = new StringBuilder();
+					try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+						String line;
+						while ((line = in.readLine()) != null) {
+							if (line.startsWith(STATS_PREFIX))
+								SortStats.record(job.config.type, parseStats(line));
+							else
+								sb.append(line).append(System.lineSeparator());
+						}
+					}
+					if (process.waitFor() != 0)
+						throw new IOException(String.format("Worker for %s %s n = %d exited with %d", 
+								job.sort, job.config.type, job.config.n, process.exitValue()));
+					return sb.toString();
+				} finally {
+					cores.add(core);
+				}
+			}
+			
+			/**
+			 * Command line that starts a JVM like this one, with the same options and class path, 
+			 * running {@link Sorter#run(String...)} with argument options
+			 * 
+			 * @param args
+			 * @return
+			 */
+			private static List<String> javaCommand(String... args) {
+				List<String> cmd = new ArrayList<>();
+				cmd.add(ProcessHandle.current().info().command()
+						.orElse(Paths.get(System.getProperty("java.home"), "bin", "java").toString()));
+				cmd.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+				cmd.addAll(Arrays.asList("-cp", System.getProperty("java.class.path"), 
+						System.getProperty("sun.java.command", "Project_01").split(" ")[0]));
+				cmd.addAll(Arrays.asList(args));
+				return cmd;
+			}
+			
+			/**
+			 * Entry point of a forked worker.  Runs a single configuration described as n:TYPE:SORT:SEED
+			 * and prints its trial results followed by a machine readable line of averages.
+			 * 
+			 * @param spec
+			 */
+			private static void runForkedJob(String spec) {
+				String[] parts = spec.split(":");
+				int n = Integer.parseInt(parts[0]);
+				Type type = Type.valueOf(parts[1]);
+				Sort sort = Sort.valueOf(parts[2]);
+				SortStats tracker = tracker();
+				tracker.currentType = type;
+				System.out.print(runSort(sort, DataGenerator.generate(type, n, Long.parseLong(parts[3]))));
+				SortStats avg = totals.get(type).get(n).get(0);
+				StringBuilder sb = new StringBuilder(String.format("%s%s %s %d %d %d %d %d %d %s %s %s %d %d", STATS_PREFIX, 
+						avg.currentSort, avg.currentType, avg.n, avg.arrayAccesses, avg.swaps, avg.comparisons, avg.elapsedTime, 
+						avg.samples, Double.toString(avg.accessesVariance), Double.toString(avg.comparisonsVariance), 
+						Double.toString(avg.elapsedVariance), avg.elapsedMin, avg.elapsedMax));
+				for (long p : avg.elapsedPercentiles)
+					sb.append(' ').append(p);
+				sb.append(' ').append(avg.streamingAccesses).append(' ').append(Double.toString(avg.loadImbalance));
+				sb.append(' ').append(avg.bytesAllocated).append(' ').append(avg.peakAuxBytes);
+				System.out.println(sb.toString());
+			}
+			
+			/**
+			 * Rebuild the averages printed by {@link #runForkedJob(String)}
+			 * 
+			 * @param line
+			 * @return
+			 */
+			private static SortStats parseStats(String line) {
+				String[] f = line.substring(STATS_PREFIX.length()).split(" ");
+				SortStats s = new SortStats();
+				s.currentSort = Sort.valueOf(f[0]);
+				s.currentType = Type.valueOf(f[1]);
+				s.n = Integer.parseInt(f[2]);
+				s.arrayAccesses = Long.parseLong(f[3]);
+				s.swaps = Long.parseLong(f[4]);
+				s.comparisons = Long.parseLong(f[5]);
+				s.elapsedTime = Long.parseLong(f[6]);
+				s.samples = Integer.parseInt(f[7]);
+				s.accessesVariance = Double.parseDouble(f[8]);
+				s.comparisonsVariance = Double.parseDouble(f[9]);
+				s.elapsedVariance = Double.parseDouble(f[10]);
+				s.elapsedMin = Long.parseLong(f[11]);
+				s.elapsedMax = Long.parseLong(f[12]);
+				for (int i = 0; i < s.elapsedPercentiles.length; ++i)
+					s.elapsedPercentiles[i] = Long.parseLong(f[13 + i]);
+				s.streamingAccesses = Long.parseLong(f[13 + s.elapsedPercentiles.length]);
+				s.loadImbalance = Double.parseDouble(f[14 + s.elapsedPercentiles.length]);
+				s.bytesAllocated = Long.parseLong(f[15 + s.elapsedPercentiles.length]);
+				s.peakAuxBytes = Long.parseLong(f[16 + s.elapsedPercentiles.length]);
+				return s;
+			}
+			
+			/**
+			 * Rough relative running time of a job, used to schedule the longest jobs first
+			 * 
+			 * @param sort
+			 * @param n
+			 * @param type
+			 * @return
+			 */
+			private static double estimatedCost(Sort sort, int n, Type type) {
+				double work, weight;
+				int trials = NUM_TRIALS;
+				switch (sort) {
+				case SELECTION:
+				case SELECTION_K:
+					trials = 10;
+					work = (double) n * n;
+					break;
+				case INSERTION:
+				case INSERTION_K:
+				case BUBBLE:
+				case BUBBLE_K:
+					work = (double) n * n;
+					break;
+				default:
+					work = n * (Math.log(n + 1) / Math.log(2));
+				}
+				switch (type) {
+				case STRINGS:
+				case BIGINTEGERS:
+					weight = 4;
+					break;
+				case LOCALDATETIMES:
+				case UUIDS:
+					weight = 2;
+					break;
+				default:
+					weight = 1;
+				}
+				return work * weight * trials;
+			}
+		}
+
+		/**
+		 * Sorts across several worker JVMs on the same host, so the input is no longer limited to one 
+		 * heap and one {@link ForkJoinPool#commonPool()}.
+		 * <br>
+		 * <br>The coordinator samples the input and picks one splitter per boundary between workers.  It 
+		 * range partitions the input into shards by binary search over the splitters and ships each shard 
+		 * to its worker over a loopback socket.  Each worker sorts its shard with a {@link Sorter} engine 
+		 * and streams it back.  Shards hold ordered, non overlapping key ranges, so writing them back in 
+		 * shard order gives the globally sorted array.  A kth element query ships only the shard holding 
+		 * rank k, which the worker answers with a selection engine.
+		 * 
+		 * @author Alex Feaser
+		 */
+		private static class ShardedSort implements AutoCloseable {
+			private static final int OVERSAMPLING = 64;
+			private static final int CONNECT_TIMEOUT = 60000;
+			private static final byte SORT = 'S', SELECT = 'K', QUIT = 'Q';
+			private final Process[] processes;
+			private final DataInputStream[] ins;
+			private final DataOutputStream[] outs;
+			private final ExecutorService pool;
+			private final long[] workerTimes;
+			private int[] shardSizes = {};
+			
+			/**
+			 * Start argument number of worker JVMs and wait for each to connect
+			 * 
+			 * @param workers
+			 * @throws IOException
+			 */
+			private ShardedSort(int workers) throws IOException {
+				processes = new Process[workers];
+				ins = new DataInputStream[workers];
+				outs = new DataOutputStream[workers];
+				workerTimes = new long[workers];
+				pool = Executors.newFixedThreadPool(workers);
+				try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+					server.setSoTimeout(CONNECT_TIMEOUT);
+					for (int i = 0; i < workers; ++i)
+						processes[i] = new ProcessBuilder(MatrixRunner.javaCommand("--shard-worker=" + server.getLocalPort()))
+								.redirectOutput(ProcessBuilder.Redirect.DISCARD)
+								.redirectError(ProcessBuilder.Redirect.INHERIT).start();
+					for (int i = 0; i < workers; ++i) {
+						Socket socket = server.accept();
+						socket.setTcpNoDelay(true);
+						ins[i] = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+						outs[i] = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+					}
+				} catch (IOException e) {
+					close();
+					throw e;
+				}
+			}
+			
+			/**
+			 * Sort argument array across the workers
+			 * 
+			 * @param <E>
+			 * @param type element type of the array
+			 * @param engine full sort run by each worker, see {@link Sorter#sorterFor(Sort)}
+			 * @param array
+			 * @return reference to the sorted array
+			 * @throws IOException
+			 */
+			private <E extends Comparable<? super E>> E[] sort(Type type, Sort engine, E[] array) throws IOException {
+				E[][] shards = partition(array);
+				List<Future<Void>> results = new ArrayList<>();
+				for (int i = 0, offset = 0; i < shards.length; offset += shards[i++].length) {
+					final int w = i, at = offset;
+					results.add(pool.submit(() -> {
+						send(w, SORT, type, engine, 0, shards[w]);
+						workerTimes[w] = ins[w].readLong();
+						for (int j = 0, len = ins[w].readInt(); j < len; ++j)
+							array[at + j] = read(ins[w], type);
+						return null;
+					}));
+				}
+				await(results);
+				return array;
+			}
+			
+			/**
+			 * Find the kth smallest element of argument array, sending only the shard that holds it
+			 * 
+			 * @param <E>
+			 * @param type element type of the array
+			 * @param engine selection run by the worker, see {@link Sorter#selectorFor(Sort)}
+			 * @param array
+			 * @param k 1 based rank
+			 * @return kth smallest element
+			 * @throws IOException
+			 */
+			private <E extends Comparable<? super E>> E select(Type type, Sort engine, E[] array, int k) throws IOException {
+				if (k < 1 || k > array.length)
+					throw new IllegalArgumentException(String.format("len: %d, k: %d", array.length, k));
+				E[][] shards = partition(array);
+				int w = 0;
+				while (k > shards[w].length)
+					k -= shards[w++].length;
+				Arrays.fill(workerTimes, 0);
+				send(w, SELECT, type, engine, k, shards[w]);
+				workerTimes[w] = ins[w].readLong();
+				return read(ins[w], type);
+			}
+			
+			/**
+			 * Split argument array into one shard per worker.  Splitters are taken at even ranks of a 
+			 * sorted random sample; every copy of a key lands in the same shard.
+			 * 
+			 * @param <E>
+			 * @param array
+			 * @return shards in key order
+			 */
+			@SuppressWarnings("unchecked")
+			private <E extends Comparable<? super E>> E[][] partition(E[] array) {
+				final int workers = processes.length, n = array.length;
+				E[] sample = (E[]) new Comparable[Math.min(n, workers * OVERSAMPLING)];
+				SplittableRandom rand = new SplittableRandom(n);
+				for (int i = 0; i < sample.length; ++i)
+					sample[i] = array[rand.nextInt(n)];
+				mergeSorter(sample);
+				E[] splitters = (E[]) new Comparable[workers - 1];
+				for (int i = 0; i < splitters.length && sample.length > 0; ++i)
+					splitters[i] = sample[(i + 1) * sample.length / workers];
+				
+				final int[] shardOf = new int[n];
+				shardSizes = new int[workers];
+				for (int i = 0; i < n; ++i) {
+					int s = Arrays.binarySearch(splitters, array[i]);
+					shardOf[i] = (s < 0) ? -(s + 1) : s;
+					shardSizes[shardOf[i]]++;
+				}
+				E[][] shards = (E[][]) new Comparable[workers][];
+				for (int w = 0; w < workers; ++w)
+					shards[w] = (E[]) new Comparable[shardSizes[w]];
+				final int[] next = new int[workers];
+				for (int i = 0; i < n; ++i)
+					shards[shardOf[i]][next[shardOf[i]]++] = array[i];
+				return shards;
+			}
+			
+			/**
+			 * Send a request to argument worker
+			 * 
+			 * @param w
+			 * @param command
+			 * @param type
+			 * @param engine
+			 * @param k
+			 * @param shard
+			 * @throws IOException
+			 */
+			private void send(int w, byte command, Type type, Sort engine, int k, Comparable<?>[] shard) throws IOException {
+				DataOutputStream out = outs[w];
+				out.writeByte(command);
+				out.writeByte(type.ordinal());
+				out.writeByte(engine.ordinal());
+				out.writeInt(k);
+				out.writeInt(shard.length);
+				for (Comparable<?> e : shard)
+					write(out, type, e);
+				out.flush();
+			}
+			
+			/**
+			 * Wait for every argument result, rethrowing the first failure
+			 * 
+			 * @param results
+			 * @throws IOException
+			 */
+			private static void await(List<Future<Void>> results) throws IOException {
+				for (Future<Void> result : results) {
+					try {
+						result.get();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new IOException(e);
+					} catch (ExecutionException e) {
+						throw (e.getCause() instanceof IOException) ? (IOException) e.getCause() : new IOException(e.getCause());
+					}
+				}
+			}
+			
+			/**
+			 * Ask every worker to exit and wait for it
+			 */
+			@Override
+			public void close() {
+				pool.shutdownNow();
+				for (int w = 0; w < processes.length; ++w) {
+					try {
+						if (outs[w] != null) {
+							outs[w].writeByte(QUIT);
+							outs[w].flush();
+						}
+					} catch (IOException e) {
+						e.printStackTrace();
+					}
+					try {
+						if (processes[w] != null && !processes[w].waitFor(10, TimeUnit.SECONDS))
+							processes[w].destroyForcibly();
+					} catch (InterruptedException e) {
+						processes[w].destroyForcibly();
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+			
+			/**
+			 * Entry point of a worker JVM.  Connects to the coordinator on argument loopback port and 
+			 * answers its requests until told to quit.
+			 * 
+			 * @param port
+			 */
+			private static <E extends Comparable<? super E>> void runWorker(int port) {
+				try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+						DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+						DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+					socket.setTcpNoDelay(true);
+					for (byte command; (command = in.readByte()) != QUIT; ) {
+						Type type = Type.values()[in.readByte()];
+						Sort engine = Sort.values()[in.readByte()];
+						int k = in.readInt();
+						E[] shard = Arrays.copyOf(Sorter.<E>newArray(type), in.readInt());
+						for (int i = 0; i < shard.length; ++i)
+							shard[i] = read(in, type);
+						tracker().currentType = type;
+						long start = System.nanoTime();
+						if (command == SORT) {
+							Sorter.<E>sorterFor(engine).apply(shard);
+							out.writeLong(System.nanoTime() - start);
+							out.writeInt(shard.length);
+							for (E e : shard)
+								write(out, type, e);
+						} else {
+							E e = Sorter.<E>selectorFor(engine).apply(shard, k);
+							out.writeLong(System.nanoTime() - start);
+							write(out, type, e);
+						}
+						out.flush();
+					}
+				} catch (IOException e) {
+					e.printStackTrace();
+					System.exit(1);
+				}
+			}
+			
+			/**
+			 * Write a single element of argument type
+			 * 
+			 * @param out
+			 * @param type
+			 * @param e
+			 * @throws IOException
+			 */
+			private static void write(DataOutputStream out, Type type, Object e) throws IOException {
+				switch (type) {
+				case SHORTS:
+					out.writeShort((Short) e);
+					break;
+				case INTEGERS:
+					out.writeInt((Integer) e);
+					break;
+				case LONGS:
+					out.writeLong((Long) e);
+					break;
+				case FLOATS:
+					out.writeFloat((Float) e);
+					break;
+				case DOUBLES:
+					out.writeDouble((Double) e);
+					break;
+				case CHARACTERS:
+					out.writeChar((Character) e);
+					break;
+				case STRINGS:
+					out.writeUTF((String) e);
+					break;
+				case BIGINTEGERS:
+					byte[] bytes = ((BigInteger) e).toByteArray();
+					out.writeInt(bytes.length);
+					out.write(bytes);
+					break;
+				case LOCALDATETIMES:
+					LocalDateTime date = (LocalDateTime) e;
+					out.writeLong(date.toLocalDate().toEpochDay());
+					out.writeLong(date.toLocalTime().toNanoOfDay());
+					break;
+				case UUIDS:
+					out.writeLong(((UUID) e).getMostSignificantBits());
+					out.writeLong(((UUID) e).getLeastSignificantBits());
+					break;
+				}
+			}
+			
+			/**
+			 * Read a single element of argument type
+			 * 
+			 * @param <E>
+			 * @param in
+			 * @param type
+			 * @return
+			 * @throws IOException
+			 */
+			@SuppressWarnings("unchecked")
+			private static <E extends Comparable<? super E>> E read(DataInput in, Type type) throws IOException {
+				switch (type) {
+				case SHORTS:
+					return (E) (Short) in.readShort();
+				case INTEGERS:
+					return (E) (Integer) in.readInt();
+				case LONGS:
+					return (E) (Long) in.readLong();
+				case FLOATS:
+					return (E) (Float) in.readFloat();
+				case DOUBLES:
+					return (E) (Double) in.readDouble();
+				case CHARACTERS:
+					return (E) (Character) in.readChar();
+				case STRINGS:
+					return (E) in.readUTF();
+				case BIGINTEGERS:
+					byte[] bytes = new byte[in.readInt()];
+					in.readFully(bytes);
+					return (E) new BigInteger(bytes);
+				case LOCALDATETIMES:
+					return (E) LocalDateTime.of(LocalDate.ofEpochDay(in.readLong()), LocalTime.ofNanoOfDay(in.readLong()));
+				case UUIDS:
+					return (E) new UUID(in.readLong(), in.readLong());
+				}
+				throw new IOException("Unknown type " + type);
+			}
+		}
+
+		/**
+		 * Compact binary store of averaged results from {@link Sorter#totals}, used to compare runs 
+		 * across builds.
+		 * <br>
+		 * <br>A file holds one run.  The header records the git revision and JVM the run was made with, 
+		 * followed by string tables of algorithm, type and distribution names.  Records are fixed width 
+		 * and sorted by (Sort, Type, distribution, n), so a single configuration can be found with a 
+		 * binary search over the file without reading it all.
+		 * 
+		 * @author Alex Feaser
+		 */
+		private static class ResultStore {
+			private static final int MAGIC = 0x534F5254;	// "SORT"
+			private static final short VERSION = 2;
+			private static final int RECORD_SIZE_V1 = 2 + 2 + 2 + 4 + 4 + 4 * 8 + 3 * 8;
+			private static final int RECORD_SIZE = RECORD_SIZE_V1 + (2 + Distribution.PERCENTILES.length) * 8;
+			private static final double T_THRESHOLD = 3.0;
+			private static final double MIN_CHANGE = 0.05;
+			
+			private final String revision;
+			private final String jvm;
+			private final long timestamp;
+			private final List<SortStats> records;
+			
+			private ResultStore(String revision, String jvm, long timestamp, List<SortStats> records) {
+				this.revision = revision;
+				this.jvm = jvm;
+				this.timestamp = timestamp;
+				this.records = records;
+				records.sort(Comparator.comparing((SortStats s) -> s.currentSort.name())
+						.thenComparing(s -> s.currentType.name())
+						.thenComparing(s -> s.distribution)
+						.thenComparingInt(s -> s.n));
+			}
+			
+			/**
+			 * Snapshot the current contents of {@link Sorter#totals}
+			 * 
+			 * @return
+			 */
+			private static ResultStore fromTotals() {
+				List<SortStats> records = new ArrayList<>();
+				for (Map<Integer, List<SortStats>> byN : totals.values())
+					for (List<SortStats> list : byN.values())
+						records.addAll(list);
+				return new ResultStore(gitRevision(), jvm(), System.currentTimeMillis(), records);
+			}
+			
+			/**
+			 * Revision of the working tree, or "unknown" outside of a git checkout
+			 * 
+			 * @return
+			 */
+			private static String gitRevision() {
+				try {
+					Process process = new ProcessBuilder("git", "rev-parse", "--short", "HEAD")
+							.redirectError(ProcessBuilder.Redirect.DISCARD).start();
+					try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+						String line = in.readLine();
+						if (process.waitFor() == 0 && line != null)
+							return line.trim();
+					}
+				} catch (IOException | InterruptedException e) {
+				}
+				return "unknown";
+			}
+			
+			private static String jvm() {
+				return String.format("%s %s", System.getProperty("java.vm.name"), System.getProperty("java.version"));
+			}
+			
+			/**
+			 * Write this run to argument path
+			 * 
+			 * @param path
+			 * @throws IOException
+			 */
+			private void save(Path path) throws IOException {
+				List<String> sorts = names(s -> s.currentSort.name());
+				List<String> types = names(s -> s.currentType.name());
+				List<String> distributions = names(s -> s.distribution);
+				try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+					out.writeInt(MAGIC);
+					out.writeShort(VERSION);
+					out.writeUTF(revision);
+					out.writeUTF(jvm);
+					out.writeLong(timestamp);
+					for (List<String> table : Arrays.asList(sorts, types, distributions)) {
+						out.writeShort(table.size());
+						for (String name : table)
+							out.writeUTF(name);
+					}
+					out.writeInt(records.size());
+					for (SortStats s : records) {
+						out.writeShort(sorts.indexOf(s.currentSort.name()));
+						out.writeShort(types.indexOf(s.currentType.name()));
+						out.writeShort(distributions.indexOf(s.distribution));
+						out.writeInt(s.n);
+						out.writeInt(s.samples);
+						out.writeLong(s.arrayAccesses);
+						out.writeLong(s.swaps);
+						out.writeLong(s.comparisons);
+						out.writeLong(s.elapsedTime);
+						out.writeDouble(s.accessesVariance);
+						out.writeDouble(s.comparisonsVariance);
+						out.writeDouble(s.elapsedVariance);
+						out.writeLong(s.elapsedMin);
+						out.writeLong(s.elapsedMax);
+						for (long p : s.elapsedPercentiles)
+							out.writeLong(p);
+					}
+				}
+			}
+			
+			/**
+			 * Sorted, distinct values of argument key across all records
+			 * 
+			 * @param key
+			 * @return
+			 */
+			private List<String> names(Function<SortStats, String> key) {
+				return records.stream().map(key).distinct().sorted().collect(Collectors.toList());
+			}
+			
+			/**
+			 * Read a run previously written by {@link #save(Path)}
+			 * 
+			 * @param path
+			 * @return
+			 * @throws IOException
+			 */
+			private static ResultStore load(Path path) throws IOException {
+				try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+					Header h = readHeader(in, path);
+					int count = in.readInt();
+					List<SortStats> records = new ArrayList<>(count);
+					for (int i = 0; i < count; ++i)
+						records.add(readRecord(in, h));
+					return new ResultStore(h.revision, h.jvm, h.timestamp, records);
+				}
+			}
+			
+			/**
+			 * A stored run opened for lookups of single configurations by binary search over its sorted, 
+			 * fixed width records, without reading the whole file
+			 */
+			private static class Index implements Closeable {
+				private final RandomAccessFile file;
+				private final Header header;
+				private final int count;
+				private final long base;
+				
+				private Index(Path path) throws IOException {
+					file = new RandomAccessFile(path.toFile(), "r");
+					try {
+						header = readHeader(file, path);
+						count = file.readInt();
+						base = file.getFilePointer();
+					} catch (IOException e) {
+						file.close();
+						throw e;
+					}
+				}
+				
+				/**
+				 * Look up a single configuration
+				 * 
+				 * @param sort
+				 * @param type
+				 * @param distribution
+				 * @param n
+				 * @return matching record, or null if the run does not contain it
+				 * @throws IOException
+				 */
+				private SortStats find(Sort sort, Type type, String distribution, int n) throws IOException {
+					int sortId = header.sorts.indexOf(sort.name()), typeId = header.types.indexOf(type.name());
+					int distId = header.distributions.indexOf(distribution);
+					if (sortId < 0 || typeId < 0 || distId < 0)
+						return null;
+					long key = recordKey(sortId, typeId, distId, n);
+					int l = 0, r = count - 1;
+					while (r >= l) {
+						int mid = (l + r) >>> 1;
+						file.seek(base + (long) mid * header.recordSize);
+						long midKey = recordKey(file.readShort(), file.readShort(), file.readShort(), file.readInt());
+						if (midKey > key)
+							r = mid - 1;
+						else if (midKey < key)
+							l = mid + 1;
+						else {
+							file.seek(base + (long) mid * header.recordSize);
+							return readRecord(file, header);
+						}
+					}
+					return null;
+				}
+				
+				@Override
+				public void close() throws IOException {
+					file.close();
+				}
+			}
+			
+			/**
+			 * Orders records identically to the sort applied before saving, since string tables are sorted
+			 */
+			private static long recordKey(int sort, int type, int distribution, int n) {
+				return ((long) sort << 48) | ((long) type << 40) | ((long) distribution << 32) | (n & 0xFFFFFFFFL);
+			}
+			
+			/**
+			 * Header fields and string tables of a stored run
+			 */
+			private static class Header {
+				private short version;
+				private int recordSize;
+				private String revision;
+				private String jvm;
+				private long timestamp;
+				private final List<String> sorts = new ArrayList<>();
+				private final List<String> types = new ArrayList<>();
+				private final List<String> distributions = new ArrayList<>();
+			}
+			
+			private static Header readHeader(DataInput in, Path path) throws IOException {
+				if (in.readInt() != MAGIC)
+					throw new IOException("Not a result store: " + path);
+				Header h = new Header();
+				h.version = in.readShort();
+				if (h.version < 1 || h.version > VERSION)
+					throw new IOException(String.format("Unsupported result store version %d: %s", h.version, path));
+				h.recordSize = (h.version == 1) ? RECORD_SIZE_V1 : RECORD_SIZE;
+				h.revision = in.readUTF();
+				h.jvm = in.readUTF();
+				h.timestamp = in.readLong();
+				for (List<String> table : Arrays.asList(h.sorts, h.types, h.distributions)) {
+					int size = in.readShort();
+					for (int i = 0; i < size; ++i)
+						table.add(in.readUTF());
+				}
+				return h;
+			}
+			
+			private static SortStats readRecord(DataInput in, Header h) throws IOException {
+				SortStats s = new SortStats();
+				s.currentSort = Sort.valueOf(h.sorts.get(in.readShort()));
+				s.currentType = Type.valueOf(h.types.get(in.readShort()));
+				s.distribution = h.distributions.get(in.readShort());
+				s.n = in.readInt();
+				s.samples = in.readInt();
+				s.arrayAccesses = in.readLong();
+				s.swaps = in.readLong();
+				s.comparisons = in.readLong();
+				s.elapsedTime = in.readLong();
+				s.accessesVariance = in.readDouble();
+				s.comparisonsVariance = in.readDouble();
+				s.elapsedVariance = in.readDouble();
+				if (h.version >= 2) {
+					s.elapsedMin = in.readLong();
+					s.elapsedMax = in.readLong();
+					for (int i = 0; i < s.elapsedPercentiles.length; ++i)
+						s.elapsedPercentiles[i] = in.readLong();
+				}
+				return s;
+			}
+			
+			/**
+			 * Compare two stored runs and report every configuration whose elapsed time, comparisons or 
+			 * array accesses grew significantly.  A change is flagged when Welch's t statistic exceeds 
+			 * {@link #T_THRESHOLD} and the mean grew by at least {@link #MIN_CHANGE}.  The new run is read 
+			 * whole, and each of its configurations is looked up in the base run through an {@link Index}.
+			 * 
+			 * @param basePath
+			 * @param newPath
+			 * @return true if any regression was found
+			 * @throws IOException
+			 */
+			private static boolean compare(Path basePath, Path newPath) throws IOException {
+				ResultStore current = load(newPath);
+				StringBuilder sb = new StringBuilder();
+				int regressions = 0;
+				try (Index base = new Index(basePath)) {
+					sb.append(String.format("%nBase:  %s  (%s)%nNew:   %s  (%s)%n%n", base.header.revision, base.header.jvm, current.revision, current.jvm));
+					sb.append(String.format("%-20s%-16s%-10s%-12s%-12s%18s%18s%10s%10s%n", 
+							"Sort", "Type", "Dist", "n", "Metric", "Base", "New", "Change", "t"));
+					for (SortStats now : current.records) {
+						SortStats was = base.find(now.currentSort, now.currentType, now.distribution, now.n);
+						if (was == null)
+							continue;
+						regressions += flag(sb, was, now, "Time", was.elapsedTime, now.elapsedTime, was.elapsedVariance, now.elapsedVariance);
+						regressions += flag(sb, was, now, "Comparisons", was.comparisons, now.comparisons, was.comparisonsVariance, now.comparisonsVariance);
+						regressions += flag(sb, was, now, "Accesses", was.arrayAccesses, now.arrayAccesses, was.accessesVariance, now.accessesVariance);
+					}
+				}
+				sb.append(String.format("%n%d regression(s)%n", regressions));
+				System.out.println(sb.toString());
+				return regressions > 0;
+			}
+			
+			/**
+			 * Append a line for argument metric if it regressed significantly
+			 * 
+			 * @return 1 if the metric regressed, otherwise 0
+			 */
+			private static int flag(StringBuilder sb, SortStats was, SortStats now, String metric, 
+					long baseMean, long newMean, double baseVar, double newVar) {
+				if (newMean <= baseMean || newMean - baseMean < MIN_CHANGE * baseMean)
+					return 0;
+				double se = Math.sqrt(baseVar / Math.max(1, was.samples) + newVar / Math.max(1, now.samples));
+				double t = (se == 0) ? Double.POSITIVE_INFINITY : (newMean - baseMean) / se;
+				if (t < T_THRESHOLD)
+					return 0;
+				sb.append(String.format("%-20s%-16s%-10s%-12d%-12s%18d%18d%+9.1f%%%10.1f%n", now.currentSort, now.currentType, 
+						now.distribution, now.n, metric, baseMean, newMean, 100.0 * (newMean - baseMean) / Math.max(1, baseMean), t));
+				return 1;
+			}
+		}
+
+		/**
+		 * The generic hot loops of {@link Sorter}, whose compareTo call sites would otherwise see every 
+		 * element class the process sorts and turn megamorphic.  Besides the classic partition, merge, 
+		 * heapify and binary search, this holds the boxed {@link SmallSort} kernel every recursive sort 
+		 * ends in, the three way partition, the run merge of the segmented sort and the loser tree 
+		 * comparison of the cache aware merge sort.
+		 * 
+		 * @author Alex Feaser
+		 */
+		private interface HotLoops {
+			<E extends Comparable<? super E>> int binarySearch(E[] array, int left, int right, E key);
+			<E extends Comparable<? super E>> int partition(E[] array, int l, int r);
+			<E extends Comparable<? super E>> E[] merge(E[] tempL, E[] tempR, E[] array);
+			<E extends Comparable<? super E>> void heapify(E[] array, int n, int i);
+			<E extends Comparable<? super E>> void smallSort(E[] a, int from, int to);
+			
+			/**
+			 * Three way partition of array[l..h] around the median of its first, middle and last elements.  
+			 * Elements equal to the pivot are gathered between the returned bounds, so neither sorted input 
+			 * nor runs of equal keys make the partition lopsided.
+			 * 
+			 * @return {lt, gt}: array[lt..gt] equal the pivot, smaller elements lie before lt and larger after gt
+			 */
+			<E extends Comparable<? super E>> int[] partition3(E[] array, int l, int h);
+			
+			/**
+			 * Merge sorted runs src[i..mid) and src[mid..end) into dst starting at index k
+			 */
+			<E extends Comparable<? super E>> void mergeRuns(E[] src, int i, int mid, int end, E[] dst, int k);
+			
+			/**
+			 * Whether the head of run x is output before the head of run y.  An exhausted run is never 
+			 * output first, and ties go to the lower run.
+			 */
+			<E extends Comparable<? super E>> boolean before(E[] src, int[] pos, int[] end, int x, int y);
+		}
+		
+		/**
+		 * Template for the per element class copies of {@link HotLoops}.  {@link Sorter#hotLoops} defines 
+		 * this class's bytecode again as a hidden class for each element class it is asked for, so every 
+		 * copy keeps its own type profile, and the compareTo call sites in it stay monomorphic and 
+		 * inlinable however many types were sorted before.  The copies are nestmates of {@link Sorter} 
+		 * and use its tracker directly.  If the class file cannot be read, every element class shares 
+		 * this class.  Sorts resolve their copy once, from the array they were given, and pass it down 
+		 * their recursion rather than looking it up per call.
+		 * 
+		 * @author Alex Feaser
+		 */
+		private static final class HotLoopKernel implements HotLoops {
+			@Override
+			public <E extends Comparable<? super E>> int binarySearch(E[] array, int left, int right, E key) {
+				SortStats tracker = tracker();
+				int mid = 0, l = left, r = right - 1;
+				while (r >= l) {
+					mid = (r + l) >>> 1;
+					int res = array[mid].compareTo(key);
+					tracker.arrayAccesses++;
+					tracker.comparisons++;
+					if (res > 0) 
+						r = mid - 1;
+					else if (res < 0)
+						l = mid + 1;
+					else 
+						return mid;
+				}
+				return -(l + 1);
+			}
+			
+			@Override
+			public <E extends Comparable<? super E>> int partition(E[] array, int l, int r) {
+				SortStats tracker = tracker();
+				E pivot = array[r];
+				tracker.arrayAccesses++;
+				int pIndex = l;
+				for (int i = l; i < r; i++) {
+					if (array[i].compareTo(pivot) <= 0)
+						swap(array, i, pIndex++);
+					tracker.comparisons++;
+					tracker.arrayAccesses++;
+				}
+				swap(array, pIndex, r);
+				return pIndex;
+			}
+			
+			@Override
+			public <E extends Comparable<? super E>> E[] merge(E[] tempL, E[] tempR, E[] array) {
+				SortStats tracker = tracker();
+				int leftlen = tempL.length, rightlen = tempR.length;
+				int leftIndex = 0, rightIndex = 0, index = 0;
+				while (leftIndex < leftlen && rightIndex < rightlen) {
+					if (tempL[leftIndex].compareTo(tempR[rightIndex]) <= 0)
+						array[index++] = tempL[leftIndex++];
+					else
+						array[index++] = tempR[rightIndex++];
+					tracker.comparisons++;
+					tracker.arrayAccesses += 4;
+				}
+				while (leftIndex < leftlen)
+					array[index++] = tempL[leftIndex++];
+				tracker.swaps += leftlen = leftlen - leftIndex + 1;
+				tracker.arrayAccesses += leftlen << 1;
+				while (rightIndex < rightlen)
+					array[index++] = tempR[rightIndex++];
+				tracker.swaps += rightlen = rightlen - rightIndex + 1;
+				tracker.arrayAccesses += rightlen << 1;
+				return array;
+			}
+			
+			@Override
+			public <E extends Comparable<? super E>> void heapify(E[] array, int n, int i) {
+				SortStats tracker = tracker();
+				int largest = i;
+				int l = (i << 1) + 1;
+				int r = (i << 1) + 2;
+				if (l < n) {
+					if (array[l].compareTo(array[largest]) > 0)
+						largest = l;
+					tracker.comparisons++;
+					tracker.arrayAccesses += 2;
+				}
+				if (r < n) {
+					if (array[r].compareTo(array[largest]) > 0)
+						largest = r;
+					tracker.comparisons++;
+					tracker.arrayAccesses += 2;
+				}
+				if (largest != i) {
+					swap(array, i, largest);
+					heapify(array, n, largest);
+				}
+			}
+			
+			@Override
+			public <E extends Comparable<? super E>> void smallSort(E[] a, int from, int to) {
+				SortStats tracker = tracker();
+				final int len = to - from;
+				if (len <= SmallSort.NETWORK_MAX) {
+					final int[] net = SmallSort.NETWORKS[Math.max(0, len)];
+					for (int i = 0; i < net.length; i += 2) {
+						final int x = from + net[i], y = from + net[i + 1];
+						final E p = a[x], q = a[y];
+						final boolean gt = p.compareTo(q) > 0;
+						a[x] = gt ? q : p;
+						a[y] = gt ? p : q;
+						tracker.swaps += gt ? 1 : 0;
+					}
+					tracker.comparisons += net.length >> 1;
+					tracker.arrayAccesses += net.length << 1;
+					return;
+				}
+				int min = from;
+				for (int i = from + 1; i < to; ++i)
+					if (a[i].compareTo(a[min]) < 0)
+						min = i;
+				tracker.comparisons += len - 1;
+				tracker.arrayAccesses += len;
+				swap(a, from, min);
+				for (int i = from + 2; i < to; ++i) {
+					E key = a[i];
+					int j = i - 1;
+					while (key.compareTo(a[j]) < 0) {
+						a[j + 1] = a[j];
+						--j;
+					}
+					a[j + 1] = key;
+					tracker.comparisons += i - j;
+					tracker.arrayAccesses += (i - j) << 1;
+					tracker.swaps += i - j - 1;
+				}
+			}
+			
+			@Override
+			public <E extends Comparable<? super E>> int[] partition3(E[] array, int l, int h) {
+				SortStats tracker = tracker();
+				final int m = l + ((h - l) >> 1);
+				if (array[m].compareTo(array[l]) < 0)
+					swap(array, m, l);
+				if (array[h].compareTo(array[l]) < 0)
+					swap(array, h, l);
+				if (array[h].compareTo(array[m]) < 0)
+					swap(array, h, m);
+				tracker.comparisons += 3;
+				tracker.arrayAccesses += 6;
+				final E pivot = array[m];
+				tracker.arrayAccesses++;
+				int lt = l, gt = h, i = l;
+				while (i <= gt) {
+					int c = array[i].compareTo(pivot);
+					tracker.comparisons++;
+					tracker.arrayAccesses++;
+					if (c < 0)
+						swap(array, lt++, i++);
+					else if (c > 0)
+						swap(array, i, gt--);
+					else
+						++i;
+				}
+				return new int[] { lt, gt };
+			}
+			
+			@Override
+			public <E extends Comparable<? super E>> void mergeRuns(E[] src, int i, int mid, int end, E[] dst, int k) {
+				SortStats tracker = tracker();
+				int j = mid;
+				while (i < mid && j < end) {
+					if (src[j].compareTo(src[i]) < 0)
+						dst[k++] = src[j++];
+					else
+						dst[k++] = src[i++];
+					tracker.comparisons++;
+					tracker.arrayAccesses += 4;
+				}
+				System.arraycopy(src, i, dst, k, mid - i);
+				System.arraycopy(src, j, dst, k + mid - i, end - j);
+				tracker.swaps += (mid - i) + (end - j);
+				tracker.arrayAccesses += ((mid - i) + (end - j)) << 1;
+			}
+			
+			@Override
+			public <E extends Comparable<? super E>> boolean before(E[] src, int[] pos, int[] end, int x, int y) {
+				if (pos[x] == end[x])
+					return false;
+				if (pos[y] == end[y])
+					return true;
+				SortStats tracker = tracker();
+				tracker.comparisons++;
+				tracker.arrayAccesses += 2;
+				final int c = src[pos[x]].compareTo(src[pos[y]]);
+				return c < 0 || (c == 0 && x < y);
+			}
+		}
+		
+		/**
+		 * Kernels for sorting short ranges, used on their own and as the leaf case of the recursive 
+		 * algorithms in {@link Sorter} once a range is no longer than {@link Sorter#smallSortCutoff}.
+		 * <br>
+		 * <br>Ranges of up to {@link #NETWORK_MAX} elements are sorted with size optimal sorting networks, 
+		 * whose fixed sequence of compare-exchanges is written as conditional moves rather than branches.  
+		 * Longer ranges use an insertion sort that first moves the minimum to the front as a sentinel, 
+		 * removing the bounds check from its inner loop; it is intended for up to {@link #INSERTION_MAX} 
+		 * elements.  The boxed kernel lives in {@link HotLoopKernel}, so each element class gets its own 
+		 * copy, and records its work in the tracker; primitive kernels do not.
+		 * 
+		 * @author Alex Feaser
+		 */
+		public static final class SmallSort {
+			public static final int NETWORK_MAX = 16;
+			public static final int INSERTION_MAX = 32;
+			
+			/**
+			 * Compare-exchange pairs of the best known (size optimal) network for each length, 
+			 * each checked against all 0-1 inputs
+			 */
+			private static final int[][] NETWORKS = {
+				{},
+				{},
+				{ 0, 1 },	// 2: 1 comparator
+				{ 0, 2, 0, 1, 1, 2 },	// 3: 3 comparators
+				{ 0, 2, 1, 3, 0, 1, 2, 3, 1, 2 },	// 4: 5 comparators
+				{	// 5: 9 comparators
+					0, 3, 1, 4, 0, 2, 1, 3, 0, 1, 2, 4, 1, 2, 3, 4,
+					2, 3
+				},
+				{	// 6: 12 comparators
+					0, 5, 1, 3, 2, 4, 1, 2, 3, 4, 0, 3, 2, 5, 0, 1,
+					2, 3, 4, 5, 1, 2, 3, 4
+				},
+				{	// 7: 16 comparators
+					0, 6, 2, 3, 4, 5, 0, 2, 1, 4, 3, 6, 0, 1, 2, 5,
+					3, 4, 1, 2, 4, 6, 2, 3, 4, 5, 1, 2, 3, 4, 5, 6
+				},
+				{	// 8: 19 comparators
+					0, 2, 1, 3, 4, 6, 5, 7, 0, 4, 1, 5, 2, 6, 3, 7,
+					0, 1, 2, 3, 4, 5, 6, 7, 2, 4, 3, 5, 1, 4, 3, 6,
+					1, 2, 3, 4, 5, 6
+				},
+				{	// 9: 25 comparators
+					0, 3, 1, 7, 2, 5, 4, 8, 0, 7, 2, 4, 3, 8, 5, 6,
+					0, 2, 1, 3, 4, 5, 7, 8, 1, 4, 3, 6, 5, 7, 0, 1,
+					2, 4, 3, 5, 6, 8, 2, 3, 4, 5, 6, 7, 1, 2, 3, 4,
+					5, 6
+				},
+				{	// 10: 29 comparators
+					0, 8, 1, 9, 2, 7, 3, 5, 4, 6, 0, 2, 1, 4, 5, 8,
+					7, 9, 0, 3, 2, 4, 5, 7, 6, 9, 0, 1, 3, 6, 8, 9,
+					1, 5, 2, 3, 4, 8, 6, 7, 1, 2, 3, 5, 4, 6, 7, 8,
+					2, 3, 4, 5, 6, 7, 3, 4, 5, 6
+				},
+				{	// 11: 35 comparators
+					0, 9, 1, 6, 2, 4, 3, 7, 5, 8, 0, 1, 3, 5, 4, 10,
+					6, 9, 7, 8, 1, 3, 2, 5, 4, 7, 8, 10, 0, 4, 1, 2,
+					3, 7, 5, 9, 6, 8, 0, 1, 2, 6, 4, 5, 7, 8, 9, 10,
+					2, 4, 3, 6, 5, 7, 8, 9, 1, 2, 3, 4, 5, 6, 7, 8,
+					2, 3, 4, 5, 6, 7
+				},
+				{	// 12: 39 comparators
+					0, 8, 1, 7, 2, 6, 3, 11, 4, 10, 5, 9, 0, 1, 2, 5,
+					3, 4, 6, 9, 7, 8, 10, 11, 0, 2, 1, 6, 5, 10, 9, 11,
+					0, 3, 1, 2, 4, 6, 5, 7, 8, 11, 9, 10, 1, 4, 3, 5,
+					6, 8, 7, 10, 1, 3, 2, 5, 6, 9, 8, 10, 2, 3, 4, 5,
+					6, 7, 8, 9, 4, 6, 5, 7, 3, 4, 5, 6, 7, 8
+				},
+				{	// 13: 45 comparators
+					0, 12, 1, 10, 2, 9, 3, 7, 5, 11, 6, 8, 1, 6, 2, 3,
+					4, 11, 7, 9, 8, 10, 0, 4, 1, 2, 3, 6, 7, 8, 9, 10,
+					11, 12, 4, 6, 5, 9, 8, 11, 10, 12, 0, 5, 3, 8, 4, 7,
+					6, 11, 9, 10, 0, 1, 2, 5, 6, 9, 7, 8, 10, 11, 1, 3,
+					2, 4, 5, 6, 9, 10, 1, 2, 3, 4, 5, 7, 6, 8, 2, 3,
+					4, 5, 6, 7, 8, 9, 3, 4, 5, 6
+				},
+				{	// 14: 51 comparators
+					0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 0, 2,
+					1, 3, 4, 8, 5, 9, 10, 12, 11, 13, 0, 4, 1, 2, 3, 7,
+					5, 8, 6, 10, 9, 13, 11, 12, 0, 6, 1, 5, 3, 9, 4, 10,
+					7, 13, 8, 12, 2, 10, 3, 11, 4, 6, 7, 9, 1, 3, 2, 8,
+					5, 11, 6, 7, 10, 12, 1, 4, 2, 6, 3, 5, 7, 11, 8, 10,
+					9, 12, 2, 4, 3, 6, 5, 8, 7, 10, 9, 11, 3, 4, 5, 6,
+					7, 8, 9, 10, 6, 7
+				},
+				{	// 15: 56 comparators
+					0, 13, 1, 12, 3, 14, 4, 8, 5, 6, 7, 11, 9, 10, 0, 5,
+					1, 7, 2, 9, 3, 4, 6, 13, 8, 14, 11, 12, 0, 1, 2, 3,
+					4, 5, 6, 8, 7, 9, 10, 11, 12, 13, 0, 2, 1, 3, 4, 10,
+					5, 11, 6, 7, 8, 9, 12, 14, 1, 2, 3, 12, 4, 6, 5, 7,
+					8, 10, 9, 11, 13, 14, 1, 4, 2, 6, 5, 8, 7, 10, 9, 13,
+					11, 14, 2, 4, 3, 6, 9, 12, 11, 13, 3, 5, 6, 8, 7, 9,
+					10, 12, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 6, 7, 8, 9
+				},
+				{	// 16: 60 comparators
+					0, 13, 1, 12, 2, 15, 3, 14, 4, 8, 5, 6, 7, 11, 9, 10,
+					0, 5, 1, 7, 2, 9, 3, 4, 6, 13, 8, 14, 10, 15, 11, 12,
+					0, 1, 2, 3, 4, 5, 6, 8, 7, 9, 10, 11, 12, 13, 14, 15,
+					0, 2, 1, 3, 4, 10, 5, 11, 6, 7, 8, 9, 12, 14, 13, 15,
+					1, 2, 3, 12, 4, 6, 5, 7, 8, 10, 9, 11, 13, 14, 1, 4,
+					2, 6, 5, 8, 7, 10, 9, 13, 11, 14, 2, 4, 3, 6, 9, 12,
+					11, 13, 3, 5, 6, 8, 7, 9, 10, 12, 3, 4, 5, 6, 7, 8,
+					9, 10, 11, 12, 6, 7, 8, 9
+				},
+			};
+			
+			private SmallSort() {}
+			
+			/**
+			 * Sort indices from (inclusive) to to (exclusive) of argument array
+			 * 
+			 * @param <E>
+			 * @param a
+			 * @param from
+			 * @param to
+			 */
+			public static <E extends Comparable<? super E>> void sort(E[] a, int from, int to) {
+				hotLoops(a).smallSort(a, from, to);
+			}
+			
+			/**
+			 * Sort indices from (inclusive) to to (exclusive) of argument array
+			 * 
+			 * @param a
+			 * @param from
+			 * @param to
+			 */
+			public static void sort(int[] a, int from, int to) {
+				final int len = to - from;
+				if (len <= NETWORK_MAX) {
+					final int[] net = NETWORKS[Math.max(0, len)];
+					for (int i = 0; i < net.length; i += 2) {
+						final int x = from + net[i], y = from + net[i + 1];
+						final int p = a[x], q = a[y];
+						a[x] = Math.min(p, q);
+						a[y] = Math.max(p, q);
+					}
+					return;
+				}
+				int min = from;
+				for (int i = from + 1; i < to; ++i)
+					min = (a[i] < a[min]) ? i : min;
+				int c = a[from];
+				a[from] = a[min];
+				a[min] = c;
+				for (int i = from + 2; i < to; ++i) {
+					int key = a[i], j = i - 1;
+					while (key < a[j]) {
+						a[j + 1] = a[j];
+						--j;
+					}
+					a[j + 1] = key;
+				}
+			}
+			
+			/**
+			 * Sort indices from (inclusive) to to (exclusive) of argument array
+			 * 
+			 * @param a
+			 * @param from
+			 * @param to
+			 */
+			public static void sort(long[] a, int from, int to) {
+				final int len = to - from;
+				if (len <= NETWORK_MAX) {
+					final int[] net = NETWORKS[Math.max(0, len)];
+					for (int i = 0; i < net.length; i += 2) {
+						final int x = from + net[i], y = from + net[i + 1];
+						final long p = a[x], q = a[y];
+						a[x] = Math.min(p, q);
+						a[y] = Math.max(p, q);
+					}
+					return;
+				}
+				int min = from;
+				for (int i = from + 1; i < to; ++i)
+					min = (a[i] < a[min]) ? i : min;
+				long c = a[from];
+				a[from] = a[min];
+				a[min] = c;
+				for (int i = from + 2; i < to; ++i) {
+					long key = a[i];
+					int j = i - 1;
+					while (key < a[j]) {
+						a[j + 1] = a[j];
+						--j;
+					}
+					a[j + 1] = key;
+				}
+			}
+			
+			/**
+			 * Sort indices from (inclusive) to to (exclusive) of argument array, in the order of 
+			 * {@link Float#compare}
+			 * 
+			 * @param a
+			 * @param from
+			 * @param to
+			 */
+			public static void sort(float[] a, int from, int to) {
+				final int len = to - from;
+				if (len <= NETWORK_MAX) {
+					final int[] net = NETWORKS[Math.max(0, len)];
+					for (int i = 0; i < net.length; i += 2) {
+						final int x = from + net[i], y = from + net[i + 1];
+						final float p = a[x], q = a[y];
+						final boolean gt = Float.compare(p, q) > 0;
+						a[x] = gt ? q : p;
+						a[y] = gt ? p : q;
+					}
+					return;
+				}
+				int min = from;
+				for (int i = from + 1; i < to; ++i)
+					min = (Float.compare(a[i], a[min]) < 0) ? i : min;
+				float c = a[from];
+				a[from] = a[min];
+				a[min] = c;
+				for (int i = from + 2; i < to; ++i) {
+					float key = a[i];
+					int j = i - 1;
+					while (Float.compare(key, a[j]) < 0) {
+						a[j + 1] = a[j];
+						--j;
+					}
+					a[j + 1] = key;
+				}
+			}
+			
+			/**
+			 * Sort indices from (inclusive) to to (exclusive) of argument array, in the order of 
+			 * {@link Double#compare}
+			 * 
+			 * @param a
+			 * @param from
+			 * @param to
+			 */
+			public static void sort(double[] a, int from, int to) {
+				final int len = to - from;
+				if (len <= NETWORK_MAX) {
+					final int[] net = NETWORKS[Math.max(0, len)];
+					for (int i = 0; i < net.length; i += 2) {
+						final int x = from + net[i], y = from + net[i + 1];
+						final double p = a[x], q = a[y];
+						final boolean gt = Double.compare(p, q) > 0;
+						a[x] = gt ? q : p;
+						a[y] = gt ? p : q;
+					}
+					return;
+				}
+				int min = from;
+				for (int i = from + 1; i < to; ++i)
+					min = (Double.compare(a[i], a[min]) < 0) ? i : min;
+				double c = a[from];
+				a[from] = a[min];
+				a[min] = c;
+				for (int i = from + 2; i < to; ++i) {
+					double key = a[i];
+					int j = i - 1;
+					while (Double.compare(key, a[j]) < 0) {
+						a[j + 1] = a[j];
+						--j;
+					}
+					a[j + 1] = key;
+				}
+			}
+		}
+
+		/**
+		 * Sort engine for primitive int, long, float and double arrays written so that every data 
+		 * dependent decision is a conditional move or an index increment rather than a branch.
+		 * <br>
+		 * <br>{@link #sort} is a quick sort whose partition is a scalar compress-store: each element 
+		 * is written both to the compacted low side in place and to a spill buffer for the high side, 
+		 * and the comparison result only advances one of the two cursors.  Ranges of up to 
+		 * {@link SmallSort#INSERTION_MAX} elements go to {@link SmallSort}, and a range that recurses 
+		 * too deep falls back to the merge sort.  {@link #mergeSort} sorts blocks of 
+		 * {@link SmallSort#NETWORK_MAX} with sorting networks and merges them bottom up, selecting each 
+		 * output with a conditional move.  Floats and doubles are mapped to integer keys with the same 
+		 * order as {@link Float#compare} / {@link Double#compare} and sorted as ints / longs.
+		 * <br>
+		 * <br>{@link #vectorSort} and {@link #vectorMergeSort} run the same two algorithms with 
+		 * jdk.incubator.vector kernels from VectorSort in src-vector, which is compiled and run with 
+		 * --add-modules jdk.incubator.vector and loaded reflectively.  When it is missing, or the host's 
+		 * vectors are narrower than 256 bits, they fall back to the scalar engines.
+		 * <br>
+		 * <br>None of the engines record into the tracker.
+		 * 
+		 * @author Alex Feaser
+		 */
+		public static final class PrimitiveSort {
+			private static final int RUN = SmallSort.NETWORK_MAX;
+			private static final String VECTOR_CLASS = "VectorSort";
+			private static final int VECTOR_SORT_INTS = 0, VECTOR_SORT_LONGS = 1, VECTOR_MERGE_INTS = 2, VECTOR_MERGE_LONGS = 3, VECTOR_SHAPE = 4;
+			private static final MethodHandle[] VECTOR = vectorKernels();
+			
+			private PrimitiveSort() {}
+			
+			/**
+			 * Look up the kernels of the vector engine
+			 * 
+			 * @return handles indexed by the VECTOR_ constants, or null if the vector engine is not available
+			 */
+			private static MethodHandle[] vectorKernels() {
+				try {
+					Class<?> c = Class.forName(VECTOR_CLASS);
+					MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+					if (!(boolean) lookup.findStatic(c, "available", MethodType.methodType(boolean.class)).invoke())
+						return null;
+					MethodType ints = MethodType.methodType(void.class, int[].class), longs = MethodType.methodType(void.class, long[].class);
+					return new MethodHandle[] {
+						lookup.findStatic(c, "sort", ints),
+						lookup.findStatic(c, "sort", longs),
+						lookup.findStatic(c, "mergeSort", ints),
+						lookup.findStatic(c, "mergeSort", longs),
+						lookup.findStatic(c, "shape", MethodType.methodType(String.class)),
+					};
+				} catch (ClassNotFoundException | LinkageError e) {
+					return null;	// Not built, or jdk.incubator.vector not added at run time
+				} catch (Throwable e) {
+					e.printStackTrace();
+					return null;
+				}
+			}
+			
+			/**
+			 * @return the vector shapes of the vector engine, or null if it falls back to scalar code
+			 */
+			public static String vectorShape() {
+				if (VECTOR == null)
+					return null;
+				try {
+					return (String) VECTOR[VECTOR_SHAPE].invokeExact();
+				} catch (Throwable e) {
+					e.printStackTrace();
+					return null;
+				}
+			}
+			
+			/**
+			 * Quick sort argument array with vector kernels, see {@link PrimitiveSort}
+			 * 
+			 * @param a
+			 */
+			public static void vectorSort(int[] a) {
+				if (VECTOR != null) {
+					try {
+						VECTOR[VECTOR_SORT_INTS].invokeExact(a);
+						return;
+					} catch (Throwable e) {
+						e.printStackTrace();
+					}
+				}
+				sort(a);
+			}
+			
+			/**
+			 * Quick sort argument array with vector kernels, see {@link PrimitiveSort}
+			 * 
+			 * @param a
+			 */
+			public static void vectorSort(long[] a) {
+				if (VECTOR != null) {
+					try {
+						VECTOR[VECTOR_SORT_LONGS].invokeExact(a);
+						return;
+					} catch (Throwable e) {
+						e.printStackTrace();
+					}
+				}
+				sort(a);
+			}
+			
+			/**
+			 * Quick sort argument array in the order of {@link Float#compare} with vector kernels
+			 * 
+			 * @param a
+			 */
+			public static void vectorSort(float[] a) {
+				int[] keys = toKeys(a);
+				vectorSort(keys);
+				fromKeys(keys, a);
+			}
+			
+			/**
+			 * Quick sort argument array in the order of {@link Double#compare} with vector kernels
+			 * 
+			 * @param a
+			 */
+			public static void vectorSort(double[] a) {
+				long[] keys = toKeys(a);
+				vectorSort(keys);
+				fromKeys(keys, a);
+			}
+			
+			/**
+			 * Merge sort argument array with vector kernels, see {@link PrimitiveSort}
+			 * 
+			 * @param a
+			 */
+			public static void vectorMergeSort(int[] a) {
+				if (VECTOR != null) {
+					try {
+						VECTOR[VECTOR_MERGE_INTS].invokeExact(a);
+						return;
+					} catch (Throwable e) {
+						e.printStackTrace();
+					}
+				}
+				mergeSort(a);
+			}
+			
+			/**
+			 * Merge sort argument array with vector kernels, see {@link PrimitiveSort}
+			 * 
+			 * @param a
+			 */
+			public static void vectorMergeSort(long[] a) {
+				if (VECTOR != null) {
+					try {
+						VECTOR[VECTOR_MERGE_LONGS].invokeExact(a);
+						return;
+					} catch (Throwable e) {
+						e.printStackTrace();
+					}
+				}
+				mergeSort(a);
+			}
+			
+			/**
+			 * Merge sort argument array in the order of {@link Float#compare} with vector kernels
+			 * 
+			 * @param a
+			 */
+			public static void vectorMergeSort(float[] a) {
+				int[] keys = toKeys(a);
+				vectorMergeSort(keys);
+				fromKeys(keys, a);
+			}
+			
+			/**
+			 * Merge sort argument array in the order of {@link Double#compare} with vector kernels
+			 * 
+			 * @param a
+			 */
+			public static void vectorMergeSort(double[] a) {
+				long[] keys = toKeys(a);
+				vectorMergeSort(keys);
+				fromKeys(keys, a);
+			}
+			
+			/**
+			 * Quick sort argument array
+			 * 
+			 * @param a
+			 */
+			public static void sort(int[] a) {
+				if (a.length <= SmallSort.INSERTION_MAX) {
+					SmallSort.sort(a, 0, a.length);
+					return;
+				}
+				quickSort(a, 0, a.length, new int[a.length], depthLimit(a.length));
+			}
+			
+			/**
+			 * Quick sort argument array
+			 * 
+			 * @param a
+			 */
+			public static void sort(long[] a) {
+				if (a.length <= SmallSort.INSERTION_MAX) {
+					SmallSort.sort(a, 0, a.length);
+					return;
+				}
+				quickSort(a, 0, a.length, new long[a.length], depthLimit(a.length));
+			}
+			
+			/**
+			 * Quick sort argument array in the order of {@link Float#compare}
+			 * 
+			 * @param a
+			 */
+			public static void sort(float[] a) {
+				int[] keys = toKeys(a);
+				sort(keys);
+				fromKeys(keys, a);
+			}
+			
+			/**
+			 * Quick sort argument array in the order of {@link Double#compare}
+			 * 
+			 * @param a
+			 */
+			public static void sort(double[] a) {
+				long[] keys = toKeys(a);
+				sort(keys);
+				fromKeys(keys, a);
+			}
+			
+			/**
+			 * Merge sort argument array
+			 * 
+			 * @param a
+			 */
+			public static void mergeSort(int[] a) {
+				mergeSort(a, 0, a.length, new int[a.length]);
+			}
+			
+			/**
+			 * Merge sort argument array
+			 * 
+			 * @param a
+			 */
+			public static void mergeSort(long[] a) {
+				mergeSort(a, 0, a.length, new long[a.length]);
+			}
+			
+			/**
+			 * Merge sort argument array in the order of {@link Float#compare}
+			 * 
+			 * @param a
+			 */
+			public static void mergeSort(float[] a) {
+				int[] keys = toKeys(a);
+				mergeSort(keys);
+				fromKeys(keys, a);
+			}
+			
+			/**
+			 * Merge sort argument array in the order of {@link Double#compare}
+			 * 
+			 * @param a
+			 */
+			public static void mergeSort(double[] a) {
+				long[] keys = toKeys(a);
+				mergeSort(keys);
+				fromKeys(keys, a);
+			}
+			
+			/**
+			 * Recursion depth after which quick sort hands a range to merge sort
+			 * 
+			 * @param n
+			 * @return
+			 */
+			private static int depthLimit(int n) {
+				return (32 - Integer.numberOfLeadingZeros(n)) << 1;
+			}
+			
+			/**
+			 * Quick sort indices lo (inclusive) to hi (exclusive), recursing into the smaller side
+			 * 
+			 * @param a
+			 * @param lo
+			 * @param hi
+			 * @param buf scratch space of at least hi - lo
+			 * @param depth
+			 */
+			private static void quickSort(int[] a, int lo, int hi, int[] buf, int depth) {
+				while (hi - lo > SmallSort.INSERTION_MAX) {
+					if (depth-- == 0) {
+						mergeSort(a, lo, hi, buf);
+						return;
+					}
+					final int pivot = pivot(a, lo, hi);
+					final int mid = partition(a, lo, hi, pivot, buf);
+					if (mid == lo) {
+						// Nothing is below the pivot, so every copy of it is already in place
+						lo = partitionEqual(a, lo, hi, pivot, buf);
+						continue;
+					}
+					if (mid - lo < hi - mid) {
+						quickSort(a, lo, mid, buf, depth);
+						lo = mid;
+					} else {
+						quickSort(a, mid, hi, buf, depth);
+						hi = mid;
+					}
+				}
+				SmallSort.sort(a, lo, hi);
+			}
+			
+			/**
+			 * Quick sort indices lo (inclusive) to hi (exclusive), recursing into the smaller side
+			 * 
+			 * @param a
+			 * @param lo
+			 * @param hi
+			 * @param buf scratch space of at least hi - lo
+			 * @param depth
+			 */
+			private static void quickSort(long[] a, int lo, int hi, long[] buf, int depth) {
+				while (hi - lo > SmallSort.INSERTION_MAX) {
+					if (depth-- == 0) {
+						mergeSort(a, lo, hi, buf);
+						return;
+					}
+					final long pivot = pivot(a, lo, hi);
+					final int mid = partition(a, lo, hi, pivot, buf);
+					if (mid == lo) {
+						lo = partitionEqual(a, lo, hi, pivot, buf);
+						continue;
+					}
+					if (mid - lo < hi - mid) {
+						quickSort(a, lo, mid, buf, depth);
+						lo = mid;
+					} else {
+						quickSort(a, mid, hi, buf, depth);
+						hi = mid;
+					}
+				}
+				SmallSort.sort(a, lo, hi);
+			}
+			
+			/**
+			 * Median of three samples, or of three medians of three for large ranges
+			 * 
+			 * @param a
+			 * @param lo
+			 * @param hi
+			 * @return
+			 */
+			private static int pivot(int[] a, int lo, int hi) {
+				final int n = hi - lo, m = lo + (n >> 1);
+				if (n < 1024)
+					return median(a[lo], a[m], a[hi - 1]);
+				final int s = n >> 3;
+				return median(median(a[lo], a[lo + s], a[lo + 2 * s]), median(a[m - s], a[m], a[m + s]), 
+						median(a[hi - 1 - 2 * s], a[hi - 1 - s], a[hi - 1]));
+			}
+			
+			/**
+			 * Median of three samples, or of three medians of three for large ranges
+			 * 
+			 * @param a
+			 * @param lo
+			 * @param hi
+			 * @return
+			 */
+			private static long pivot(long[] a, int lo, int hi) {
+				final int n = hi - lo, m = lo + (n >> 1);
+				if (n < 1024)
+					return median(a[lo], a[m], a[hi - 1]);
+				final int s = n >> 3;
+				return median(median(a[lo], a[lo + s], a[lo + 2 * s]), median(a[m - s], a[m], a[m + s]), 
+						median(a[hi - 1 - 2 * s], a[hi - 1 - s], a[hi - 1]));
+			}
+			
+			private static int median(int x, int y, int z) {
+				return Math.max(Math.min(x, y), Math.min(Math.max(x, y), z));
+			}
+			
+			private static long median(long x, long y, long z) {
+				return Math.max(Math.min(x, y), Math.min(Math.max(x, y), z));
+			}
+			
+			/**
+			 * Stable partition of indices lo (inclusive) to hi (exclusive) into elements below the 
+			 * argument pivot followed by the rest
+			 * 
+			 * @param a
+			 * @param lo
+			 * @param hi
+			 * @param pivot
+			 * @param buf
+			 * @return index of the first element not below the pivot
+			 */
+			private static int partition(int[] a, int lo, int hi, int pivot, int[] buf) {
+				int l = lo, r = 0;
+				for (int i = lo; i < hi; ++i) {
+					final int v = a[i], lt = (v < pivot) ? 1 : 0;
+					a[l] = v;
+					buf[r] = v;
+					l += lt;
+					r += lt ^ 1;
+				}
+				System.arraycopy(buf, 0, a, l, r);
+				return l;
+			}
+			
+			/**
+			 * Stable partition of indices lo (inclusive) to hi (exclusive) into elements below the 
+			 * argument pivot followed by the rest
+			 * 
+			 * @param a
+			 * @param lo
+			 * @param hi
+			 * @param pivot
+			 * @param buf
+			 * @return index of the first element not below the pivot
+			 */
+			private static int partition(long[] a, int lo, int hi, long pivot, long[] buf) {
+				int l = lo, r = 0;
+				for (int i = lo; i < hi; ++i) {
+					final long v = a[i];
+					final int lt = (v < pivot) ? 1 : 0;
+					a[l] = v;
+					buf[r] = v;
+					l += lt;
+					r += lt ^ 1;
+				}
+				System.arraycopy(buf, 0, a, l, r);
+				return l;
+			}
+			
+			/**
+			 * Stable partition of indices lo (inclusive) to hi (exclusive) into elements not above 
+			 * the argument pivot followed by the rest
+			 * 
+			 * @param a
+			 * @param lo
+			 * @param hi
+			 * @param pivot
+			 * @param buf
+			 * @return index of the first element above the pivot
+			 */
+			private static int partitionEqual(int[] a, int lo, int hi, int pivot, int[] buf) {
+				int l = lo, r = 0;
+				for (int i = lo; i < hi; ++i) {
+					final int v = a[i], le = (v <= pivot) ? 1 : 0;
+					a[l] = v;
+					buf[r] = v;
+					l += le;
+					r += le ^ 1;
+				}
+				System.arraycopy(buf, 0, a, l, r);
+				return l;
+			}
+			
+			/**
+			 * Stable partition of indices lo (inclusive) to hi (exclusive) into elements not above 
+			 * the argument pivot followed by the rest
+			 * 
+			 * @param a
+			 * @param lo
+			 * @param hi
+			 * @param pivot
+			 * @param buf
+			 * @return index of the first element above the pivot
+			 */
+			private static int partitionEqual(long[] a, int lo, int hi, long pivot, long[] buf) {
+				int l = lo, r = 0;
+				for (int i = lo; i < hi; ++i) {
+					final long v = a[i];
+					final int le = (v <= pivot) ? 1 : 0;
+					a[l] = v;
+					buf[r] = v;
+					l += le;
+					r += le ^ 1;
+				}
+				System.arraycopy(buf, 0, a, l, r);
+				return l;
+			}
+			
+			/**
+			 * Bottom up merge sort of indices lo (inclusive) to hi (exclusive)
+			 * 
+			 * @param a
+			 * @param lo
+			 * @param hi
+			 * @param buf scratch space of at least hi - lo
+			 */
+			private static void mergeSort(int[] a, int lo, int hi, int[] buf) {
+				final int n = hi - lo;
+				for (int i = lo; i < hi; i += RUN)
+					SmallSort.sort(a, i, Math.min(i + RUN, hi));
+				int[] src = a, dst = buf;
+				int srcOff = lo, dstOff = 0;
+				for (int w = RUN; w < n; w <<= 1) {
+					for (int i = 0; i < n; i += w << 1)
+						merge(src, srcOff + i, srcOff + Math.min(i + w, n), srcOff + Math.min(i + (w << 1), n), dst, dstOff + i);
+					int[] t = src;
+					src = dst;
+					dst = t;
+					int o = srcOff;
+					srcOff = dstOff;
+					dstOff = o;
+				}
+				if (src != a)
+					System.arraycopy(src, srcOff, a, lo, n);
+			}
+			
+			/**
+			 * Bottom up merge sort of indices lo (inclusive) to hi (exclusive)
+			 * 
+			 * @param a
+			 * @param lo
+			 * @param hi
+			 * @param buf scratch space of at least hi - lo
+			 */
+			private static void mergeSort(long[] a, int lo, int hi, long[] buf) {
+				final int n = hi - lo;
+				for (int i = lo; i < hi; i += RUN)
+					SmallSort.sort(a, i, Math.min(i + RUN, hi));
+				long[] src = a, dst = buf;
+				int srcOff = lo, dstOff = 0;
+				for (int w = RUN; w < n; w <<= 1) {
+					for (int i = 0; i < n; i += w << 1)
+						merge(src, srcOff + i, srcOff + Math.min(i + w, n), srcOff + Math.min(i + (w << 1), n), dst, dstOff + i);
+					long[] t = src;
+					src = dst;
+					dst = t;
+					int o = srcOff;
+					srcOff = dstOff;
+					dstOff = o;
+				}
+				if (src != a)
+					System.arraycopy(src, srcOff, a, lo, n);
+			}
+			
+			/**
+			 * Merge sorted runs src[i..mid) and src[mid..end) into dst starting at index k
+			 * 
+			 * @param src
+			 * @param i
+			 * @param mid
+			 * @param end
+			 * @param dst
+			 * @param k
+			 */
+			private static void merge(int[] src, int i, int mid, int end, int[] dst, int k) {
+				int j = mid;
+				while (i < mid && j < end) {
+					final int x = src[i], y = src[j], t = (y < x) ? 1 : 0;
+					dst[k++] = (t != 0) ? y : x;
+					j += t;
+					i += t ^ 1;
+				}
+				System.arraycopy(src, i, dst, k, mid - i);
+				System.arraycopy(src, j, dst, k + mid - i, end - j);
+			}
+			
+			/**
+			 * Merge sorted runs src[i..mid) and src[mid..end) into dst starting at index k
+			 * 
+			 * @param src
+			 * @param i
+			 * @param mid
+			 * @param end
+			 * @param dst
+			 * @param k
+			 */
+			private static void merge(long[] src, int i, int mid, int end, long[] dst, int k) {
+				int j = mid;
+				while (i < mid && j < end) {
+					final long x = src[i], y = src[j];
+					final int t = (y < x) ? 1 : 0;
+					dst[k++] = (t != 0) ? y : x;
+					j += t;
+					i += t ^ 1;
+				}
+				System.arraycopy(src, i, dst, k, mid - i);
+				System.arraycopy(src, j, dst, k + mid - i, end - j);
+			}
+			
+			/**
+			 * Integer keys whose signed order matches {@link Float#compare}.  The mapping is its own 
+			 * inverse.
+			 * 
+			 * @param a
+			 * @return
+			 */
+			private static int[] toKeys(float[] a) {
+				int[] keys = new int[a.length];
+				for (int i = 0; i < a.length; ++i) {
+					final int b = Float.floatToIntBits(a[i]);
+					keys[i] = b ^ ((b >> 31) & Integer.MAX_VALUE);
+				}
+				return keys;
+			}
+			
+			private static void fromKeys(int[] keys, float[] a) {
+				for (int i = 0; i < a.length; ++i) {
+					final int b = keys[i];
+					a[i] = Float.intBitsToFloat(b ^ ((b >> 31) & Integer.MAX_VALUE));
+				}
+			}
+			
+			/**
+			 * Long keys whose signed order matches {@link Double#compare}.  The mapping is its own 
+			 * inverse.
+			 * 
+			 * @param a
+			 * @return
+			 */
+			private static long[] toKeys(double[] a) {
+				long[] keys = new long[a.length];
+				for (int i = 0; i < a.length; ++i) {
+					final long b = Double.doubleToLongBits(a[i]);
+					keys[i] = b ^ ((b >> 63) & Long.MAX_VALUE);
+				}
+				return keys;
+			}
+			
+			private static void fromKeys(long[] keys, double[] a) {
+				for (int i = 0; i < a.length; ++i) {
+					final long b = keys[i];
+					a[i] = Double.longBitsToDouble(b ^ ((b >> 63) & Long.MAX_VALUE));
+				}
+			}
+		}
+
+		/**
+		 * Dynamic sorted collection supporting order statistic queries.  Elements are kept in a list of 
+		 * sorted blocks of at most {@link #BLOCK_SIZE} elements, with a Fenwick tree over the block sizes.
+		 * <br>
+		 * <br>Insertion and removal locate a block by binary search over block maxima and then shift 
+		 * within that single, cache resident block using {@link Sorter#binarySearch}.  {@link #select(int)} 
+		 * and {@link #rank(Comparable)} are O(log n).  Full blocks are split in two and empty blocks are 
+		 * dropped, each of which rebuilds the Fenwick tree in O(n / {@link #BLOCK_SIZE}).
+		 * 
+		 * @author Alex Feaser
+		 */
+		public static final class SortedBlockArray<E extends Comparable<? super E>> implements Iterable<E> {
+			private static final int BLOCK_SIZE = 512;
+			private final List<E[]> blocks = new ArrayList<>();
+			private final List<Integer> sizes = new ArrayList<>();
+			private int[] fenwick = new int[1];
+			private int size;
+			
+			public SortedBlockArray() {}
+			
+			/**
+			 * Bulk load from an already sorted array, such as the output of any {@link Sorter} algorithm.
+			 * Blocks are filled to three quarters so that early inserts do not split them.
+			 * 
+			 * @param <E>
+			 * @param sorted
+			 * @return
+			 */
+			@SuppressWarnings("unchecked")
+			public static <E extends Comparable<? super E>> SortedBlockArray<E> bulkLoad(E[] sorted) {
+				SortedBlockArray<E> res = new SortedBlockArray<>();
+				final int fill = BLOCK_SIZE * 3 / 4;
+				for (int i = 0; i < sorted.length; i += fill) {
+					int len = Math.min(fill, sorted.length - i);
+					E[] block = (E[]) new Comparable[BLOCK_SIZE];
+					System.arraycopy(sorted, i, block, 0, len);
+					res.blocks.add(block);
+					res.sizes.add(len);
+				}
+				res.size = sorted.length;
+				res.rebuild();
+				return res;
+			}
+			
+			/**
+			 * Sort argument array with argument {@link Sorter} algorithm, then bulk load the result
+			 * 
+			 * @param <E>
+			 * @param sort e.g. Sorter::mergeSort
+			 * @param array
+			 * @return
+			 */
+			public static <E extends Comparable<? super E>> SortedBlockArray<E> bulkLoad(Function<E[], E[]> sort, E[] array) {
+				return bulkLoad(sort.apply(array));
+			}
+			
+			public int size() { return size; }
+			
+			/**
+			 * Insert argument element, keeping equal elements adjacent
+			 * 
+			 * @param e
+			 */
+			@SuppressWarnings("unchecked")
+			public void insert(E e) {
+				if (blocks.isEmpty()) {
+					E[] block = (E[]) new Comparable[BLOCK_SIZE];
+					block[0] = e;
+					blocks.add(block);
+					sizes.add(1);
+					size = 1;
+					rebuild();
+					return;
+				}
+				int b = Math.min(findBlock(e), blocks.size() - 1);
+				E[] block = blocks.get(b);
+				int len = sizes.get(b);
+				int pos = Math.abs(binarySearch(block, 0, len, e) + 1);
+				System.arraycopy(block, pos, block, pos + 1, len - pos);
+				block[pos] = e;
+				sizes.set(b, len + 1);
+				++size;
+				if (len + 1 == BLOCK_SIZE)
+					split(b);
+				else
+					update(b, 1);
+			}
+			
+			/**
+			 * Remove a single occurrence of argument element
+			 * 
+			 * @param e
+			 * @return true if the element was present
+			 */
+			public boolean remove(E e) {
+				int b = findBlock(e);
+				if (b == blocks.size())
+					return false;
+				E[] block = blocks.get(b);
+				int len = sizes.get(b);
+				int pos = binarySearch(block, 0, len, e);
+				if (pos < 0)
+					return false;
+				System.arraycopy(block, pos + 1, block, pos, len - pos - 1);
+				block[len - 1] = null;
+				sizes.set(b, len - 1);
+				--size;
+				if (len == 1) {
+					blocks.remove(b);
+					sizes.remove(b);
+					rebuild();
+				} else
+					update(b, -1);
+				return true;
+			}
+			
+			/**
+			 * The kth smallest element
+			 * 
+			 * @param k 1 based rank
+			 * @return
+			 */
+			public E select(int k) {
+				if (k < 1 || k > size)
+					throw new IndexOutOfBoundsException(String.format("k: %d, size: %d", k, size));
+				int b = 0, remaining = k;
+				for (int step = Integer.highestOneBit(blocks.size()); step > 0; step >>= 1) {
+					if (b + step <= blocks.size() && fenwick[b + step] < remaining) {
+						b += step;
+						remaining -= fenwick[b];
+					}
+				}
+				return blocks.get(b)[remaining - 1];
+			}
+			
+			/**
+			 * Number of elements strictly smaller than argument element, so that 
+			 * select(rank(e) + 1) is e whenever e is present
+			 * 
+			 * @param e
+			 * @return
+			 */
+			public int rank(E e) {
+				int b = findBlock(e);
+				if (b == blocks.size())
+					return size;
+				return prefix(b) + lowerBound(blocks.get(b), sizes.get(b), e);
+			}
+			
+			@Override
+			public Iterator<E> iterator() {
+				return new Iterator<E>() {
+					private int b, i;
+					
+					@Override
+					public boolean hasNext() {
+						return b < blocks.size();
+					}
+					
+					@Override
+					public E next() {
+						if (!hasNext())
+							throw new NoSuchElementException();
+						E e = blocks.get(b)[i];
+						if (++i == sizes.get(b)) {
+							++b;
+							i = 0;
+						}
+						return e;
+					}
+				};
+			}
+			
+			/**
+			 * Index of the first block whose largest element is not smaller than argument element, 
+			 * or the number of blocks if there is none
+			 */
+			private int findBlock(E e) {
+				int l = 0, r = blocks.size();
+				while (l < r) {
+					int mid = (l + r) >>> 1;
+					if (blocks.get(mid)[sizes.get(mid) - 1].compareTo(e) < 0)
+						l = mid + 1;
+					else
+						r = mid;
+				}
+				return l;
+			}
+			
+			/**
+			 * Index of the first element of argument block not smaller than argument element
+			 */
+			private static <E extends Comparable<? super E>> int lowerBound(E[] block, int len, E e) {
+				int l = 0, r = len;
+				while (l < r) {
+					int mid = (l + r) >>> 1;
+					if (block[mid].compareTo(e) < 0)
+						l = mid + 1;
+					else
+						r = mid;
+				}
+				return l;
+			}
+			
+			/**
+			 * Split a full block into two half full blocks
+			 */
+			@SuppressWarnings("unchecked")
+			private void split(int b) {
+				E[] block = blocks.get(b);
+				E[] upper = (E[]) new Comparable[BLOCK_SIZE];
+				final int half = BLOCK_SIZE >> 1;
+				System.arraycopy(block, half, upper, 0, BLOCK_SIZE - half);
+				Arrays.fill(block, half, BLOCK_SIZE, null);
+				sizes.set(b, half);
+				blocks.add(b + 1, upper);
+				sizes.add(b + 1, BLOCK_SIZE - half);
+				rebuild();
+			}
+			
+			/**
+			 * Number of elements in blocks before argument block
+			 */
+			private int prefix(int b) {
+				int sum = 0;
+				for (int i = b; i > 0; i -= i & -i)
+					sum += fenwick[i];
+				return sum;
+			}
+			
+			private void update(int b, int delta) {
+				for (int i = b + 1; i < fenwick.length; i += i & -i)
+					fenwick[i] += delta;
+			}
+			
+			/**
+			 * Rebuild the Fenwick tree over block sizes in linear time
+			 */
+			private void rebuild() {
+				fenwick = new int[blocks.size() + 1];
+				for (int i = 1; i < fenwick.length; ++i) {
+					fenwick[i] += sizes.get(i - 1);
+					int parent = i + (i & -i);
+					if (parent < fenwick.length)
+						fenwick[parent] += fenwick[i];
+				}
+			}
+		}
+
+		/**
+		 * Binary heap of ids ordered by the keys they index, with a position index so any id can be 
+		 * removed in O(log n).  Sifting follows {@link HotLoops#heapify}.  Used by {@link RunningMedian} 
+		 * and {@link SlidingWindowSelect}.
+		 * 
+		 * @author Alex Feaser
+		 */
+		private static final class IndexedLongHeap {
+			private final boolean max;
+			private long[] keys;
+			private int[] heap;
+			private int[] pos;
+			private int size;
+			
+			/**
+			 * @param max true for a max heap, false for a min heap
+			 * @param capacity number of distinct ids
+			 */
+			private IndexedLongHeap(boolean max, int capacity) {
+				this.max = max;
+				heap = new int[capacity];
+				pos = new int[capacity];
+				Arrays.fill(pos, -1);
+			}
+			
+			/**
+			 * Make room for ids up to argument capacity
+			 */
+			private void grow(int capacity) {
+				heap = Arrays.copyOf(heap, capacity);
+				int old = pos.length;
+				pos = Arrays.copyOf(pos, capacity);
+				Arrays.fill(pos, old, capacity, -1);
+			}
+			
+			private int size() { return size; }
+			private int peek() { return heap[0]; }
+			private boolean contains(int id) { return pos[id] >= 0; }
+			
+			/**
+			 * True if the key of id a belongs above the key of id b
+			 */
+			private boolean above(int a, int b) {
+				return max ? keys[a] > keys[b] : keys[a] < keys[b];
+			}
+			
+			private void push(int id) {
+				heap[size] = id;
+				pos[id] = size;
+				siftUp(size++);
+			}
+			
+			private int pop() {
+				int top = heap[0];
+				remove(top);
+				return top;
+			}
+			
+			private void remove(int id) {
+				int i = pos[id];
+				pos[id] = -1;
+				if (i == --size)
+					return;
+				heap[i] = heap[size];
+				pos[heap[i]] = i;
+				siftUp(i);
+				siftDown(i);
+			}
+			
+			private void siftUp(int i) {
+				while (i > 0) {
+					int parent = (i - 1) >> 1;
+					if (!above(heap[i], heap[parent]))
+						return;
+					swap(i, parent);
+					i = parent;
+				}
+			}
+			
+			private void siftDown(int i) {
+				while (true) {
+			        int top = i;
+			        int l = (i << 1) + 1;
+			        int r = (i << 1) + 2;
+			        if (l < size && above(heap[l], heap[top]))
+			        	top = l;
+			        if (r < size && above(heap[r], heap[top]))
+			        	top = r;
+			        if (top == i)
+			        	return;
+			        swap(i, top);
+			        i = top;
+				}
+			}
+			
+			private void swap(int a, int b) {
+				int c = heap[a];
+				heap[a] = heap[b];
+				heap[b] = c;
+				pos[heap[a]] = a;
+				pos[heap[b]] = b;
+			}
+		}
+		
+		/**
+		 * Median of a stream of values, maintained with a max heap of the lower half and a min heap of 
+		 * the upper half.  Each update costs O(log n).  The median is element {@link Sorter#medianPosition} 
+		 * of the values seen so far, matching {@link Sorter#medianOfMedians}.
+		 * 
+		 * @author Alex Feaser
+		 */
+		public static final class RunningMedian {
+			private long[] keys = new long[16];
+			private final IndexedLongHeap lower = new IndexedLongHeap(true, 16);
+			private final IndexedLongHeap upper = new IndexedLongHeap(false, 16);
+			private int count;
+			
+			public RunningMedian() {
+				lower.keys = upper.keys = keys;
+			}
+			
+			/**
+			 * Add the next value of the stream
+			 * 
+			 * @param value
+			 */
+			public void add(long value) {
+				if (count == keys.length) {
+					keys = Arrays.copyOf(keys, count << 1);
+					lower.keys = upper.keys = keys;
+					lower.grow(count << 1);
+					upper.grow(count << 1);
+				}
+				keys[count] = value;
+				if (lower.size() > 0 && value <= keys[lower.peek()])
+					lower.push(count);
+				else
+					upper.push(count);
+				++count;
+				final int k = medianPosition(count);
+				while (lower.size() > k)
+					upper.push(lower.pop());
+				while (lower.size() < k)
+					lower.push(upper.pop());
+			}
+			
+			public int count() { return count; }
+			
+			/**
+			 * @return lower median of the values added so far
+			 */
+			public long median() {
+				if (count == 0)
+					throw new NoSuchElementException();
+				return keys[lower.peek()];
+			}
+		}
+		
+		/**
+		 * kth smallest value over a sliding window of the last w values of a stream.  Values are kept in 
+		 * a ring buffer; a max heap holds the k smallest and a min heap holds the rest, and the value 
+		 * leaving the window is removed from whichever heap holds it.  Each update costs O(log w).
+		 * 
+		 * @author Alex Feaser
+		 */
+		public static final class SlidingWindowSelect {
+			private final int w;
+			private final int k;
+			private final long[] window;
+			private final IndexedLongHeap lower;
+			private final IndexedLongHeap upper;
+			private long count;
+			
+			/**
+			 * @param w window length
+			 * @param k 1 based rank within the window
+			 */
+			public SlidingWindowSelect(int w, int k) {
+				if (k < 1 || k > w)
+					throw new IllegalArgumentException(String.format("w: %d, k: %d", w, k));
+				this.w = w;
+				this.k = k;
+				window = new long[w];
+				lower = new IndexedLongHeap(true, w);
+				upper = new IndexedLongHeap(false, w);
+				lower.keys = upper.keys = window;
+			}
+			
+			/**
+			 * Sliding window median, as {@link Sorter#medianPosition} of the window
+			 * 
+			 * @param w
+			 * @return
+			 */
+			public static SlidingWindowSelect median(int w) {
+				return new SlidingWindowSelect(w, medianPosition(w));
+			}
+			
+			/**
+			 * Add the next value of the stream, evicting the oldest once the window is full
+			 * 
+			 * @param value
+			 */
+			public void add(long value) {
+				final int slot = (int) (count++ % w);
+				if (lower.contains(slot))
+					lower.remove(slot);
+				else if (upper.contains(slot))
+					upper.remove(slot);
+				window[slot] = value;
+				if (lower.size() > 0 && value <= window[lower.peek()])
+					lower.push(slot);
+				else
+					upper.push(slot);
+				while (lower.size() > k)
+					upper.push(lower.pop());
+				while (lower.size() < k && upper.size() > 0)
+					lower.push(upper.pop());
+			}
+			
+			/**
+			 * @return true once the window holds w values
+			 */
+			public boolean isFull() { return count >= w; }
+			
+			/**
+			 * @return kth smallest value of the current window
+			 */
+			public long kth() {
+				if (lower.size() < k)
+					throw new NoSuchElementException(String.format("%d values in window, k: %d", lower.size() + upper.size(), k));
+				return window[lower.peek()];
+			}
+		}
+
+		/**
+		 * Array that is sorted lazily, one quick sort partition at a time, as order statistics are 
+		 * requested.  Every pivot placed is remembered in a bit set of positions known to hold their 
+		 * final element, so later {@link #select(int)}, {@link #range(int, int)} and iteration requests 
+		 * only refine the unsorted segments they touch.  Partitions are three way around a median of 
+		 * three, see {@link HotLoops#partition3}, so however many queries are made the total work is 
+		 * bounded by one full quick sort, O(n log n) expected even for sorted input or repeated keys.
+		 * <br>
+		 * <br>{@link #update(int, Comparable)} replaces an element and forgets only the boundaries the 
+		 * new value no longer respects.
+		 * 
+		 * @author Alex Feaser
+		 */
+		public static final class LazySortedArray<E extends Comparable<? super E>> implements Iterable<E> {
+			private static final int SORT_CUTOFF = 16;
+			private final E[] array;
+			private final BitSet fixed;
+			private final HotLoops loops;
+			private int modCount;
+			
+			/**
+			 * Wrap argument array.  The array is reordered in place and must not be modified by the caller.
+			 * 
+			 * @param array
+			 */
+			public LazySortedArray(E[] array) {
+				this.array = array;
+				fixed = new BitSet(array.length);
+				loops = hotLoops(array);
+			}
+			
+			public int size() { return array.length; }
+			
+			/**
+			 * The kth smallest element
+			 * 
+			 * @param k 1 based rank
+			 * @return
+			 */
+			public E select(int k) {
+				if (k < 1 || k > array.length)
+					throw new IndexOutOfBoundsException(String.format("k: %d, len: %d", k, array.length));
+				settle(k - 1);
+				return array[k - 1];
+			}
+			
+			/**
+			 * The elements of ranks from through to, in ascending order
+			 * 
+			 * @param from 1 based rank, inclusive
+			 * @param to 1 based rank, inclusive
+			 * @return
+			 */
+			public E[] range(int from, int to) {
+				if (from < 1 || to > array.length || from > to)
+					throw new IndexOutOfBoundsException(String.format("from: %d, to: %d, len: %d", from, to, array.length));
+				settle(from - 1);
+				settle(to - 1);
+				for (int i = fixed.nextClearBit(from - 1); i < to - 1; i = fixed.nextClearBit(i))
+					sortSegment(i);
+				return Arrays.copyOfRange(array, from - 1, to);
+			}
+			
+			/**
+			 * Fully sort the array
+			 * 
+			 * @return the wrapped array, now sorted
+			 */
+			public E[] sorted() {
+				for (int i = fixed.nextClearBit(0); i < array.length; i = fixed.nextClearBit(i))
+					sortSegment(i);
+				return array;
+			}
+			
+			/**
+			 * Replace the kth smallest element with argument element
+			 * 
+			 * @param k 1 based rank
+			 * @param e
+			 */
+			public void update(int k, E e) {
+				final int pos = k - 1;
+				select(k);
+				array[pos] = e;
+				fixed.clear(pos);
+				for (int q = fixed.previousSetBit(pos - 1); q >= 0 && array[q].compareTo(e) > 0; q = fixed.previousSetBit(q - 1))
+					fixed.clear(q);
+				for (int q = fixed.nextSetBit(pos + 1); q >= 0 && array[q].compareTo(e) < 0; q = fixed.nextSetBit(q + 1))
+					fixed.clear(q);
+				++modCount;
+			}
+			
+			/**
+			 * Ascending iteration that settles each position only when the iterator reaches it, by 
+			 * partitioning the segment ahead of it until its pivots cover that position.  This is 
+			 * incremental quick sort: the first k elements cost O(n + k log k) expected.
+			 */
+			@Override
+			public Iterator<E> iterator() {
+				return new Iterator<E>() {
+					private final int expected = modCount;
+					private int i;
+					
+					@Override
+					public boolean hasNext() {
+						return i < array.length;
+					}
+					
+					@Override
+					public E next() {
+						if (modCount != expected)
+							throw new ConcurrentModificationException();
+						if (!hasNext())
+							throw new NoSuchElementException();
+						settle(i);
+						return array[i++];
+					}
+				};
+			}
+			
+			/**
+			 * Number of positions currently known to hold their final element
+			 * 
+			 * @return
+			 */
+			public int settled() { return fixed.cardinality(); }
+			
+			/**
+			 * Partition the unsorted segment containing argument position until that position is final
+			 * 
+			 * @param pos
+			 */
+			private void settle(int pos) {
+				while (!fixed.get(pos)) {
+					int l = fixed.previousSetBit(pos) + 1;
+					int h = nextFixed(pos) - 1;
+					if (h - l < SORT_CUTOFF) {
+						loops.smallSort(array, l, h + 1);
+						fixed.set(l, h + 1);
+						return;
+					}
+					int[] p = loops.partition3(array, l, h);
+					fixed.set(p[0], p[1] + 1);
+				}
+			}
+			
+			/**
+			 * Fully sort the unsorted segment containing argument position
+			 * 
+			 * @param pos
+			 */
+			private void sortSegment(int pos) {
+				int h = nextFixed(pos) - 1;
+				for (int i = fixed.nextClearBit(pos); i <= h; i = fixed.nextClearBit(i))
+					settle(i);
+			}
+			
+			private int nextFixed(int pos) {
+				int next = fixed.nextSetBit(pos);
+				return (next < 0) ? array.length : next;
+			}
+		}
+
+		/**
+		 * Uses {@link ForkJoinPool} paradigm to perform a multithreaded merge sort
+		 * on argument array.  Arrays of up to {@link Sorter#forkThreshold} elements are merge sorted 
+		 * without forking.  Each task counts into a tracker of its own, which is added to its 
+		 * parent's once both subtasks have been joined.
+		 * 
+		 * @author Alex Feaser
+		 */
+		@SuppressWarnings("serial")
 		private static class ForkJoinMergeSort<T extends Comparable<? super T>> extends RecursiveTask<T[]> {
 			private T[] v;
-			private static int thread = 0;
-			private int thread_id = 0;
 			private final int k;
+			private final HotLoops loops;
+			private final SortStats stats = new SortStats();
+			
+			/**
+			 * Initiate a ForkJoin merge sort on argument array v
+			 *  
+			 * @param v
+			 */
+			public ForkJoinMergeSort(T[] v) { this(v, -1); }
+			
+			/**
+			 * Initiate a ForkJoin merge sort on argument array v up to the kth smallest element
+			 * @param v
+			 * @param k
+			 */
+			public ForkJoinMergeSort(T[] v, int k) {
+				this(v, k, tracker(), hotLoops(v));
+			}
+			
+			/**
+			 * Subtask recording the sort, type and size of argument parent tracker
+			 * 
+			 * @param v
+			 * @param k
+			 * @param parent
+			 * @param loops hot loops of the array's element class
+			 */
+			private ForkJoinMergeSort(T[] v, int k, SortStats parent, HotLoops loops) {
+				this.v = v;
+				this.k = k;
+				this.loops = loops;
+				stats.currentSort = parent.currentSort;
+				stats.currentType = parent.currentType;
+				stats.n = parent.n;
+			}
+			
+			/**
+			 * Add the counts of this task, and of all its subtasks, to argument tracker.  Call once the 
+			 * task has been joined.
+			 * 
+			 * @param tracker
+			 */
+			private void addTo(SortStats tracker) {
+				tracker.add(stats);
+				tracker.allocate(stats.peakAuxBytes);
+				tracker.release(stats.peakAuxBytes);
+			}
+
+			/**
+			 * Algorithm for ForkJoin merge sort
+			 */
+			@Override
+			protected T[] compute() {
+				if (v.length <= 1)
+					return v;
+				SortStats prev = trackers.get();
+				trackers.set(stats);
+				PhaseEvent event = PhaseEvent.start(stats);
+				try {
+					if (v.length <= forkThreshold)
+						return (k != -1) ? mergeSorterK(v, k) : mergeSorter(v, loops);
+					final int pos = v.length >> 1;
+					T[] leftPartition = Arrays.copyOfRange(v, 0, pos);
+					T[] rightPartition = Arrays.copyOfRange(v, pos, v.length);
+					final long aux = refArrayBytes(pos) + refArrayBytes(v.length - pos);
+					stats.allocate(aux);
+					ForkJoinMergeSort<T> leftSort = new ForkJoinMergeSort<>(leftPartition, -1, stats, loops);
+					ForkJoinMergeSort<T> rightSort = new ForkJoinMergeSort<>(rightPartition, -1, stats, loops);
+					invokeAll(leftSort, rightSort);
+					T[] left = leftSort.join(), right = rightSort.join();
+					// Counts are exact; the aux peak is this task's copies plus the larger subtree
+					stats.add(leftSort.stats);
+					stats.add(rightSort.stats);
+					final long childPeak = Math.max(leftSort.stats.peakAuxBytes, rightSort.stats.peakAuxBytes);
+					stats.allocate(childPeak);
+					stats.release(childPeak);
+					final long before = stats.arrayAccesses;
+					T[] res = (k != -1) ? mergeK(left, right, v, k) : merge(left, right, v);
+					if (v.length > cacheBlock)
+						stats.streamingAccesses += stats.arrayAccesses - before;
+					stats.release(aux);
+					return res;
+				} finally {
+					event.finish(stats, "fork/join task", 32 - Integer.numberOfLeadingZeros(v.length - 1), v.length);
+					trackers.set(prev);
+				}
+			}
+			
+			/**
+			 * Merge argument arrays left and right into argument array arr
+			 * 
+			 * @param left
+			 * @param right
+			 * @param arr
+			 * @return
+			 */
+			private T[] merge(T[] left, T[] right, T[] arr) {
+				return loops.merge(left, right, arr);
+			}
+
+			/**
+			 * Merge argument arrays left and right into argument array arr up to the kth smallest element
+			 * 
+			 * @param left
+			 * @param right
+			 * @param arr
+			 * @param k
+			 * @return
+			 */
+			private T[] mergeK(T[] left, T[] right, T[] arr, int k) {
+				return Sorter.mergeK(left, right, arr, k);
+			}
+			
+		}
+
+		/**
+		 * Supplies the input of each trial run by {@link SortStats#track} and {@link SortStats#trackK}.
+		 * Trial i sorts a copy of the source array after it has been shuffled i times.
+		 * <br>
+		 * <br>When more than one processor is available a background producer copies and shuffles the 
+		 * next {@link #DEPTH} inputs into a bounded pool of reusable buffers while the current trial runs, 
+		 * so the measured thread only takes a ready buffer and hands it back once the trial is done.
+		 * 
+		 * @author Alex Feaser
+		 */
+		private static class TrialPipeline<E extends Comparable<? super E>> implements AutoCloseable {
+			private static final int DEPTH = 2;
+			private static final ExecutorService producers = Executors.newCachedThreadPool(r -> {
+				Thread t = new Thread(r, "trial-pipeline");
+				t.setDaemon(true);
+				return t;
+			});
+			private final E[] array;
+			private final BlockingQueue<E[]> free;
+			private final BlockingQueue<E[]> ready;
+			private final Future<?> producer;
+			private int taken;
+			
+			/**
+			 * Start preparing argument number of trials of argument array
+			 * 
+			 * @param array source array, shuffled once after each trial's copy is made
+			 * @param trials
+			 */
+			private TrialPipeline(E[] array, int trials) {
+				this.array = array;
+				if (Runtime.getRuntime().availableProcessors() < 2 || trials < 2) {
+					free = ready = null;
+					producer = null;
+					return;
+				}
+				free = new ArrayBlockingQueue<>(DEPTH + 1);
+				ready = new ArrayBlockingQueue<>(DEPTH + 1);
+				for (int i = 0; i <= DEPTH; ++i)
+					free.add(array.clone());
+				producer = producers.submit(() -> {
+					for (int i = 0; i < trials; ++i) {
+						if (i > 0)
+							shuffle(array);
+						E[] buffer = free.take();
+						System.arraycopy(array, 0, buffer, 0, array.length);
+						ready.put(buffer);
+					}
+					return null;
+				});
+			}
+			
+			/**
+			 * Input of the next trial
+			 * 
+			 * @return
+			 */
+			private E[] take() {
+				if (producer == null) {
+					if (taken++ > 0)
+						shuffle(array);
+					return array.clone();
+				}
+				try {
+					E[] buffer;
+					while ((buffer = ready.poll(100, TimeUnit.MILLISECONDS)) == null)
+						if (producer.isDone())
+							producer.get();
+					return buffer;
+				} catch (InterruptedException | ExecutionException e) {
+					throw new IllegalStateException("Trial input could not be prepared", e);
+				}
+			}
+			
+			/**
+			 * Hand a buffer back for reuse once its trial is finished.  The caller must not keep a reference.
+			 * 
+			 * @param buffer
+			 */
+			private void recycle(E[] buffer) {
+				if (producer != null && buffer.length == array.length)
+					free.offer(buffer);
+			}
+			
+			@Override
+			public void close() {
+				if (producer != null)
+					producer.cancel(true);
+			}
+		}
+
+		/**
+		 * Flight Recorder event covering a single trial of an algorithm run by {@link SortStats#track} 
+		 * or {@link SortStats#trackK}.  Costs next to nothing while no recording is enabling it.
+		 * 
+		 * @author Alex Feaser
+		 */
+		@Name("sorter.Sort")
+		@Label("Sort")
+		@Category("Sorter")
+		@Description("A single trial of a sorting or selection algorithm")
+		static class SortEvent extends Event {
+			@Label("Sort")
+			String sort;
+			@Label("Type")
+			String type;
+			@Label("n")
+			int n;
+			@Label("Array Accesses")
+			long arrayAccesses;
+			@Label("Swaps")
+			long swaps;
+			@Label("Comparisons")
+			long comparisons;
+			
+			/**
+			 * End the event and commit the counts of argument tracker if the event is being recorded
+			 * 
+			 * @param tracker
+			 */
+			private void finish(SortStats tracker) {
+				end();
+				if (shouldCommit()) {
+					sort = String.valueOf(tracker.currentSort);
+					type = String.valueOf(tracker.currentType);
+					n = tracker.n;
+					arrayAccesses = tracker.arrayAccesses;
+					swaps = tracker.swaps;
+					comparisons = tracker.comparisons;
+					commit();
+				}
+			}
+		}
+		
+		/**
+		 * Flight Recorder event covering one phase inside an algorithm: a partition pass of quick sort, 
+		 * a merge of merge sort, the build or extraction phase of heap sort, or a fork/join merge task.  
+		 * Counts are the growth of the tracker over the phase, so for fork/join tasks they include work 
+		 * done concurrently by sibling tasks.
+		 * 
+		 * @author Alex Feaser
+		 */
+		@Name("sorter.Phase")
+		@Label("Sort Phase")
+		@Category("Sorter")
+		@Description("A phase inside a sorting or selection algorithm")
+		static class PhaseEvent extends Event {
+			@Label("Sort")
+			String sort;
+			@Label("Type")
+			String type;
+			@Label("n")
+			int n;
+			@Label("Phase")
+			String phase;
+			@Label("Level")
+			@Description("Merge level or recursion depth where applicable")
+			int level;
+			@Label("Size")
+			@Description("Number of elements the phase operated on")
+			int size;
+			@Label("Array Accesses")
+			long arrayAccesses;
+			@Label("Swaps")
+			long swaps;
+			@Label("Comparisons")
+			long comparisons;
+			
+			/**
+			 * Begin a phase, remembering the counts of argument tracker
+			 * 
+			 * @param tracker
+			 * @return the started event
+			 */
+			private static PhaseEvent start(SortStats tracker) {
+				PhaseEvent event = new PhaseEvent();
+				event.begin();
+				event.arrayAccesses = tracker.arrayAccesses;
+				event.swaps = tracker.swaps;
+				event.comparisons = tracker.comparisons;
+				return event;
+			}
+			
+			/**
+			 * End the phase and commit it if the event is being recorded
+			 * 
+			 * @param tracker
+			 * @param phase
+			 * @param level
+			 * @param size
+			 */
+			private void finish(SortStats tracker, String phase, int level, int size) {
+				end();
+				if (shouldCommit()) {
+					sort = String.valueOf(tracker.currentSort);
+					type = String.valueOf(tracker.currentType);
+					n = tracker.n;
+					this.phase = phase;
+					this.level = level;
+					this.size = size;
+					arrayAccesses = tracker.arrayAccesses - arrayAccesses;
+					swaps = tracker.swaps - swaps;
+					comparisons = tracker.comparisons - comparisons;
+					commit();
+				}
+			}
+		}
+
+		/**
+		 * Flight Recorder event recording one decision of {@link AutoPlanner}: the probe of the input, 
+		 * the predicted cost of every candidate engine and the engine chosen
+		 * 
+		 * @author Alex Feaser
+		 */
+		@Name("sorter.Plan")
+		@Label("Sort Plan")
+		@Category("Sorter")
+		@Description("Engine chosen for an auto sort or auto select")
+		static class PlanEvent extends Event {
+			@Label("Sort")
+			String sort;
+			@Label("Type")
+			String type;
+			@Label("n")
+			int n;
+			@Label("k")
+			@Description("Rank selected, or -1 for a full sort")
+			int k;
+			@Label("Descents")
+			@Description("Sampled fraction of neighbours out of order")
+			double descents;
+			@Label("Inversions")
+			@Description("Sampled fraction of pairs out of order")
+			double inversions;
+			@Label("Distinct")
+			@Description("Fraction of distinct values in the sample")
+			double distinct;
+			@Label("Range")
+			@Description("Sampled value range of integral types, or -1")
+			long range;
+			@Label("Skew")
+			@Description("Largest sampled share of a value cell relative to uniform, floating point types only")
+			double skew;
+			@Label("Workers")
+			int workers;
+			@Label("Calibrated")
+			@Description("Whether recorded averages were available for the type")
+			boolean calibrated;
+			@Label("Predicted Time")
+			@Timespan(Timespan.NANOSECONDS)
+			long predicted;
+			@Label("Candidates")
+			@Description("Predicted nanoseconds of every candidate, * where the rate is not calibrated")
+			String candidates;
+		}
+
+		/**
+		 * Engine behind {@link Sorter#sortColumns(Object[], Object...)}.  Only an int array of row 
+		 * indices is sorted: a stable merge sort over the first key column, then the same sort over the 
+		 * next key column inside each run of indices whose rows tie on the previous one.  Each column is 
+		 * wrapped in a {@link Column} specialised to its array type, so no element is boxed.  The rows 
+		 * are then moved by following the cycles of the permutation, moving every column at each step, 
+		 * with a single saved row per cycle as the only extra space.
+		 * 
+		 * @author Alex Feaser
+		 */
+		private static final class ColumnSort {
+			
+			/**
+			 * One column of a table, comparing and moving rows by index
+			 */
+			private interface Column {
+				int compare(int i, int j);
+				void save(int i);
+				void move(int from, int to);
+				void restore(int to);
+			}
+			
+			private ColumnSort() {}
+			
+			/**
+			 * Sort the rows of argument columns
+			 * 
+			 * @param keys
+			 * @param payload
+			 * @return row order applied
+			 */
+			private static int[] sort(Object[] keys, Object[] payload) {
+				SortStats tracker = tracker();
+				final int n = Array.getLength(keys[0]);
+				final Column[] keyColumns = new Column[keys.length];
+				final Column[] all = new Column[keys.length + payload.length];
+				for (int c = 0; c < keys.length; ++c)
+					all[c] = keyColumns[c] = column(keys[c], true);
+				for (int c = 0; c < payload.length; ++c)
+					all[keys.length + c] = column(payload[c], false);
+				final int[] order = IntStream.range(0, n).toArray();
+				final int[] buf = new int[n];
+				final long aux = 2 * intArrayBytes(n);
+				tracker.allocate(aux);
+				
+				PhaseEvent event = PhaseEvent.start(tracker);
+				sortRuns(order, 0, n, keyColumns, 0, buf);
+				event.finish(tracker, "order", 0, n);
+				event = PhaseEvent.start(tracker);
+				permute(order, all);
+				event.finish(tracker, "permute", 0, n);
+				tracker.release(aux);
+				return order;
+			}
+			
+			/**
+			 * Sort indices lo (inclusive) to hi (exclusive) of argument order by key column c, then 
+			 * each run of them equal in that column by the following key columns
+			 * 
+			 * @param order
+			 * @param lo
+			 * @param hi
+			 * @param keys
+			 * @param c
+			 * @param buf
+			 */
+			private static void sortRuns(int[] order, int lo, int hi, Column[] keys, int c, int[] buf) {
+				SortStats tracker = tracker();
+				final Column key = keys[c];
+				mergeSort(order, lo, hi, key, buf);
+				if (c + 1 == keys.length)
+					return;
+				for (int i = lo; i < hi; ) {
+					int j = i + 1;
+					while (j < hi && key.compare(order[i], order[j]) == 0)
+						++j;
+					tracker.comparisons += j - i - ((j < hi) ? 0 : 1);
+					tracker.arrayAccesses += j - i + 1;
+					if (j - i > 1)
+						sortRuns(order, i, j, keys, c + 1, buf);
+					i = j;
+				}
+			}
+			
+			/**
+			 * Stable merge sort of indices lo (inclusive) to hi (exclusive) of argument order by the rows 
+			 * of argument column they refer to
+			 * 
+			 * @param order
+			 * @param lo
+			 * @param hi
+			 * @param key
+			 * @param buf scratch of at least the length of order
+			 */
+			private static void mergeSort(int[] order, int lo, int hi, Column key, int[] buf) {
+				SortStats tracker = tracker();
+				if (hi - lo <= SmallSort.INSERTION_MAX) {
+					for (int i = lo + 1; i < hi; ++i) {
+						final int row = order[i];
+						int j = i - 1;
+						while (j >= lo && key.compare(row, order[j]) < 0) {
+							order[j + 1] = order[j];
+							--j;
+							++tracker.comparisons;
+							tracker.arrayAccesses += 2;
+						}
+						order[j + 1] = row;
+						tracker.comparisons += (j >= lo) ? 1 : 0;
+						tracker.arrayAccesses += 2;
+					}
+					return;
+				}
+				final int mid = (lo + hi) >>> 1;
+				mergeSort(order, lo, mid, key, buf);
+				mergeSort(order, mid, hi, key, buf);
+				++tracker.comparisons;
+				tracker.arrayAccesses += 2;
+				if (key.compare(order[mid - 1], order[mid]) <= 0)
+					return;
+				System.arraycopy(order, lo, buf, lo, mid - lo);
+				int i = lo, j = mid, k = lo;
+				while (i < mid && j < hi) {
+					order[k++] = (key.compare(order[j], buf[i]) < 0) ? order[j++] : buf[i++];
+					++tracker.comparisons;
+					tracker.arrayAccesses += 3;
+				}
+				System.arraycopy(buf, i, order, k, mid - i);
+				tracker.arrayAccesses += (mid - lo) << 1;
+				tracker.swaps += hi - lo;
+			}
+			
+			/**
+			 * Rearrange every argument column so row i becomes the row at order[i]
+			 * 
+			 * @param order
+			 * @param columns
+			 */
+			private static void permute(int[] order, Column[] columns) {
+				SortStats tracker = tracker();
+				final BitSet placed = new BitSet(order.length);
+				for (int start = 0; start < order.length; ++start) {
+					if (placed.get(start) || order[start] == start)
+						continue;
+					for (Column column : columns)
+						column.save(start);
+					int to = start;
+					for (int from = order[to]; from != start; to = from, from = order[to]) {
+						for (Column column : columns)
+							column.move(from, to);
+						placed.set(to);
+						tracker.swaps += columns.length;
+						tracker.arrayAccesses += 2L * columns.length + 1;
+					}
+					for (Column column : columns)
+						column.restore(to);
+					placed.set(to);
+					tracker.arrayAccesses += 2L * columns.length;
+				}
+			}
+			
+			/**
+			 * Wrap argument array as a column
+			 * 
+			 * @param array
+			 * @param key whether the column will be compared
+			 * @return
+			 */
+			@SuppressWarnings({ "unchecked", "rawtypes" })
+			private static Column column(Object array, boolean key) {
+				if (array instanceof int[]) {
+					final int[] a = (int[]) array;
+					return new Column() {
+						private int saved;
+						public int compare(int i, int j) { return Integer.compare(a[i], a[j]); }
+						public void save(int i) { saved = a[i]; }
+						public void move(int from, int to) { a[to] = a[from]; }
+						public void restore(int to) { a[to] = saved; }
+					};
+				}
+				if (array instanceof long[]) {
+					final long[] a = (long[]) array;
+					return new Column() {
+						private long saved;
+						public int compare(int i, int j) { return Long.compare(a[i], a[j]); }
+						public void save(int i) { saved = a[i]; }
+						public void move(int from, int to) { a[to] = a[from]; }
+						public void restore(int to) { a[to] = saved; }
+					};
+				}
+				if (array instanceof short[]) {
+					final short[] a = (short[]) array;
+					return new Column() {
+						private short saved;
+						public int compare(int i, int j) { return Short.compare(a[i], a[j]); }
+						public void save(int i) { saved = a[i]; }
+						public void move(int from, int to) { a[to] = a[from]; }
+						public void restore(int to) { a[to] = saved; }
+					};
+				}
+				if (array instanceof char[]) {
+					final char[] a = (char[]) array;
+					return new Column() {
+						private char saved;
+						public int compare(int i, int j) { return Character.compare(a[i], a[j]); }
+						public void save(int i) { saved = a[i]; }
+						public void move(int from, int to) { a[to] = a[from]; }
+						public void restore(int to) { a[to] = saved; }
+					};
+				}
+				if (array instanceof byte[]) {
+					final byte[] a = (byte[]) array;
+					return new Column() {
+						private byte saved;
+						public int compare(int i, int j) { return Byte.compare(a[i], a[j]); }
+						public void save(int i) { saved = a[i]; }
+						public void move(int from, int to) { a[to] = a[from]; }
+						public void restore(int to) { a[to] = saved; }
+					};
+				}
+				if (array instanceof float[]) {
+					final float[] a = (float[]) array;
+					return new Column() {
+						private float saved;
+						public int compare(int i, int j) { return Float.compare(a[i], a[j]); }
+						public void save(int i) { saved = a[i]; }
+						public void move(int from, int to) { a[to] = a[from]; }
+						public void restore(int to) { a[to] = saved; }
+					};
+				}
+				if (array instanceof double[]) {
+					final double[] a = (double[]) array;
+					return new Column() {
+						private double saved;
+						public int compare(int i, int j) { return Double.compare(a[i], a[j]); }
+						public void save(int i) { saved = a[i]; }
+						public void move(int from, int to) { a[to] = a[from]; }
+						public void restore(int to) { a[to] = saved; }
+					};
+				}
+				if (array instanceof Object[] && (!key || array instanceof Comparable[])) {
+					final Object[] a = (Object[]) array;
+					return new Column() {
+						private Object saved;
+						public int compare(int i, int j) { return ((Comparable) a[i]).compareTo(a[j]); }
+						public void save(int i) { saved = a[i]; }
+						public void move(int from, int to) { a[to] = a[from]; }
+						public void restore(int to) { a[to] = saved; }
+					};
+				}
+				throw new IllegalArgumentException("Unsupported " + (key ? "key" : "payload") + " column: " + array.getClass().getSimpleName());
+			}
+		}
+		
+		/**
+		 * Host specific values of the tunable thresholds of {@link Sorter}: {@link Sorter#smallSortCutoff}, 
+		 * {@link Sorter#forkThreshold}, {@link Sorter#cacheBlock}, {@link Sorter#mergeFanIn} and 
+		 * {@link Sorter#countingRangeFactor}.
+		 * <br>
+		 * <br>{@link #tune} times each candidate value on a fixed input, after one untimed warm up run.  
+		 * Every trial sorts copies of the input adding up to {@link #TRIAL_ELEMENTS} elements and is 
+		 * timed in exact nanoseconds, so short sorts stay well above timer noise.  The candidate with the 
+		 * lowest median trial only replaces the built-in default if it is faster by more than the spread 
+		 * (interquartile range) of the trials of either, so ties and noise keep the default.  The 
+		 * counting sort crossover is the largest ratio of value range to length at which counting sort 
+		 * still beats merge sort; it is 0, disabling counting sort, if counting never wins.  The results 
+		 * are saved to a profile named after the host and its processor count, and {@link #load} applies 
+		 * them at the start of later runs, so tuning is only paid for once per host.
+		 * 
+		 * @author Alex Feaser
+		 */
+		private static final class Tuning {
+			private static final int TRIALS = 9;
+			private static final long SEED = 0x5EED;
+			private static final int[] CUTOFFS = { 4, 8, 12, 16, 24, 32 };
+			private static final int[] FORK_THRESHOLDS = { 1 << 8, 1 << 10, 1 << 12, 1 << 14, 1 << 16 };
+			private static final int[] CACHE_BLOCKS = { 1 << 11, 1 << 12, 1 << 13, 1 << 14, 1 << 15, 1 << 16 };
+			private static final int[] FAN_INS = { 4, 8, 16, 32, 64 };
+			private static final int[] RANGE_FACTORS = { 1, 2, 4, 8, 16, 32 };
+			private static final int TRIAL_ELEMENTS = 1 << 18;
+			
+			private Tuning() {}
+			
+			/**
+			 * @return profile file of this host
+			 */
+			private static Path profile() {
+				String host;
+				try {
+					host = InetAddress.getLocalHost().getHostName();
+				} catch (IOException e) {
+					host = "localhost";
+				}
+				return Paths.get(System.getProperty("user.home"), ".sorter", 
+						String.format("tuning-%s-%d.properties", host, Runtime.getRuntime().availableProcessors()));
+			}
+			
+			/**
+			 * Apply the profile of this host if there is one.  Values outside the tuned candidates are 
+			 * clamped to them.
+			 * 
+			 * @return whether a profile was loaded
+			 */
+			private static boolean load() {
+				Path file = profile();
+				if (!Files.exists(file))
+					return false;
+				Properties p = new Properties();
+				try (BufferedReader in = Files.newBufferedReader(file)) {
+					p.load(in);
+					smallSortCutoff = value(p, "smallSortCutoff", smallSortCutoff, CUTOFFS);
+					forkThreshold = value(p, "forkThreshold", forkThreshold, FORK_THRESHOLDS);
+					cacheBlock = value(p, "cacheBlock", cacheBlock, CACHE_BLOCKS);
+					mergeFanIn = value(p, "mergeFanIn", mergeFanIn, FAN_INS);
+					countingRangeFactor = "0".equals(p.getProperty("countingRangeFactor", "").trim()) 
+							? 0 : value(p, "countingRangeFactor", countingRangeFactor, RANGE_FACTORS);
+					return true;
+				} catch (IOException | NumberFormatException e) {
+					e.printStackTrace();
+					return false;
+				}
+			}
+			
+			/**
+			 * @param p
+			 * @param key
+			 * @param current
+			 * @param candidates
+			 * @return value of argument key clamped to the candidates, or current if it is missing
+			 */
+			private static int value(Properties p, String key, int current, int[] candidates) {
+				String v = p.getProperty(key);
+				if (v == null)
+					return current;
+				return Math.max(candidates[0], Math.min(candidates[candidates.length - 1], Integer.parseInt(v.trim())));
+			}
+			
+			/**
+			 * Time every candidate of every threshold, apply the fastest and save them to the profile 
+			 * of this host.  Thresholds not tuned yet are at their built-in defaults while the others 
+			 * are timed.
+			 * 
+			 * @return table of the median and spread of the trial times of each candidate
+			 */
+			private static String tune() {
+				StringBuilder sb = new StringBuilder();
+				sb.append(String.format("%n  ~~~~~~~~  Tuning for %s  ~~~~~~~~%n", profile().getFileName()));
+				smallSortCutoff = DEFAULT_SMALL_SORT_CUTOFF;
+				forkThreshold = DEFAULT_FORK_THRESHOLD;
+				cacheBlock = DEFAULT_CACHE_BLOCK;
+				mergeFanIn = DEFAULT_MERGE_FAN_IN;
+				Integer[] small = DataGenerator.generate(Type.INTEGERS, 1 << 14, SEED);
+				Integer[] large = DataGenerator.generate(Type.INTEGERS, 1 << 17, SEED);
+				smallSortCutoff = fastest(sb, "smallSortCutoff", CUTOFFS, DEFAULT_SMALL_SORT_CUTOFF, 
+						v -> smallSortCutoff = v, () -> trials(small, Sort.QUICK, Sort.MERGE));
+				forkThreshold = fastest(sb, "forkThreshold", FORK_THRESHOLDS, DEFAULT_FORK_THRESHOLD, 
+						v -> forkThreshold = v, () -> trials(large, Sort.MT_MERGE));
+				cacheBlock = fastest(sb, "cacheBlock", CACHE_BLOCKS, DEFAULT_CACHE_BLOCK, 
+						v -> cacheBlock = v, () -> trials(large, Sort.CACHE_MERGE));
+				mergeFanIn = fastest(sb, "mergeFanIn", FAN_INS, DEFAULT_MERGE_FAN_IN, 
+						v -> mergeFanIn = v, () -> trials(large, Sort.CACHE_MERGE));
+				
+				sb.append(String.format("%-22s", "countingRangeFactor"));
+				countingRangeFactor = RANGE_FACTORS[RANGE_FACTORS.length - 1];
+				SplittableRandom rand = new SplittableRandom(SEED);
+				int crossover = 0;
+				for (int f = -1; f < RANGE_FACTORS.length; ++f) {
+					final int factor = RANGE_FACTORS[Math.max(0, f)];
+					final int n = COUNTING_MAX_RANGE / factor;	// The widest range counting sort accepts
+					Integer[] bounded = new Integer[n];
+					for (int i = 0; i < n; ++i)
+						bounded[i] = rand.nextInt(n * factor);
+					final long counting = median(trials(bounded, Sort.COUNTING)), merge = median(trials(bounded, Sort.MERGE));
+					if (f < 0)
+						continue;	// Warm up
+					if (counting < merge)
+						crossover = factor;
+					sb.append(String.format("%d: %s/%s  ", factor, SortStats.formatElapsed(counting), SortStats.formatElapsed(merge)));
+				}
+				countingRangeFactor = crossover;
+				sb.append(String.format("-> %d (counting/merge)%n", crossover));
+				
+				Properties p = new Properties();
+				p.setProperty("smallSortCutoff", Integer.toString(smallSortCutoff));
+				p.setProperty("forkThreshold", Integer.toString(forkThreshold));
+				p.setProperty("cacheBlock", Integer.toString(cacheBlock));
+				p.setProperty("mergeFanIn", Integer.toString(mergeFanIn));
+				p.setProperty("countingRangeFactor", Integer.toString(countingRangeFactor));
+				Path file = profile();
+				try {
+					Files.createDirectories(file.getParent());
+					try (BufferedWriter out = Files.newBufferedWriter(file)) {
+						p.store(out, "Sorter thresholds tuned for this host, delete to re-tune");
+					}
+					sb.append(String.format("Saved to %s%n", file));
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+				return sb.toString();
+			}
 			
 			/**
-			 * Initiate a ForkJoin merge sort on argument array v
-			 *  
-			 * @param v
+			 * Time every candidate value of one threshold.  The fastest candidate by median only replaces 
+			 * the default if its median is lower by more than the spread of the trials of either.
+			 * 
+			 * @param sb table to add a row to
+			 * @param name
+			 * @param candidates
+			 * @param fallback built-in default, one of the candidates
+			 * @param set applies a candidate
+			 * @param time sorted trial times with the applied candidate
+			 * @return chosen candidate
 			 */
-			public ForkJoinMergeSort(T[] v) { this(v, -1); }
+			private static int fastest(StringBuilder sb, String name, int[] candidates, int fallback, IntConsumer set, Supplier<long[]> time) {
+				sb.append(String.format("%-22s", name));
+				set.accept(fallback);
+				time.get();	// Warm up
+				int best = fallback;
+				long bestTime = Long.MAX_VALUE, bestSpread = 0, fallbackTime = 0, fallbackSpread = 0;
+				for (int v : candidates) {
+					set.accept(v);
+					final long[] times = time.get();
+					final long t = median(times), spread = spread(times);
+					sb.append(String.format("%d: %s +-%s  ", v, SortStats.formatElapsed(t), SortStats.formatElapsed(spread)));
+					if (v == fallback) {
+						fallbackTime = t;
+						fallbackSpread = spread;
+					}
+					if (t < bestTime) {
+						best = v;
+						bestTime = t;
+						bestSpread = spread;
+					}
+				}
+				if (best != fallback && fallbackTime - bestTime <= Math.max(fallbackSpread, bestSpread)) {
+					sb.append(String.format("-> %d (default, %d within spread)%n", fallback, best));
+					return fallback;
+				}
+				sb.append(String.format("-> %d%n", best));
+				return best;
+			}
 			
 			/**
-			 * Initiate a ForkJoin merge sort on argument array v up to the kth smallest element
-			 * @param v
-			 * @param k
+			 * Time argument engines, without recording it in the totals.  Each of {@link #TRIALS} trials 
+			 * sorts copies of argument input adding up to {@link #TRIAL_ELEMENTS} elements with every 
+			 * engine, one after another.
+			 * 
+			 * @param array
+			 * @param sorts
+			 * @return exact nanoseconds of each trial, summed over the engines, in ascending order
 			 */
-			public ForkJoinMergeSort(T[] v, int k) {
-				this.v = v;
-				this.k = k;
-				thread_id = (k == -1 ? 0 : ++thread);
+			private static long[] trials(Integer[] array, Sort... sorts) {
+				final int batch = Math.max(1, TRIAL_ELEMENTS / array.length);
+				final Integer[][] copies = new Integer[batch][];
+				final long[] times = new long[TRIALS];
+				tracker().currentType = null;
+				for (Sort sort : sorts) {
+					final Function<Integer[], Integer[]> f = Sorter.<Integer>sorterFor(sort);
+					for (int t = 0; t < TRIALS; ++t) {
+						for (int i = 0; i < batch; ++i)
+							copies[i] = array.clone();
+						final long start = System.nanoTime();
+						for (Integer[] copy : copies)
+							f.apply(copy);
+						times[t] += System.nanoTime() - start;
+					}
+				}
+				Arrays.sort(times);
+				return times;
 			}
-
+			
 			/**
-			 * Algorithm for ForkJoin merge sort
+			 * @param times ascending
+			 * @return median of argument times
 			 */
-			@Override
-			protected T[] compute() {
-				if (v.length <= 1)
-					return v;
-				else {
-					final int pos = v.length >> 1;
-					T[] leftPartition = Arrays.copyOfRange(v, 0, pos);
-					T[] rightPartition = Arrays.copyOfRange(v, pos, v.length);
-					ForkJoinMergeSort<T> leftSort = new ForkJoinMergeSort<>(leftPartition);
-					ForkJoinMergeSort<T> rightSort = new ForkJoinMergeSort<>(rightPartition);
-					invokeAll(leftSort, rightSort);
-					return (k != -1 && thread_id == 1) ? 
-							mergeK(leftSort.join(), rightSort.join(), v, k) : 
-								merge(leftSort.join(), rightSort.join(), v);
+			private static long median(long[] times) {
+				return times[times.length >> 1];
+			}
+			
+			/**
+			 * @param times ascending
+			 * @return interquartile range of argument times
+			 */
+			private static long spread(long[] times) {
+				return times[(times.length * 3) >> 2] - times[times.length >> 2];
+			}
+		}
+		
+		/**
+		 * Chooses the engine for {@link Sorter#autoSort} and {@link Sorter#autoSelect}.
+		 * <br>
+		 * <br>A probe of {@link #SAMPLE} elements estimates the fraction of descents between neighbours 
+		 * (so the number of runs), the fraction of inverted pairs, the fraction of distinct values, the 
+		 * value range of integral types and the skew of floating point types.  Each engine that applies 
+		 * is costed in work units, roughly comparisons and moves, from n and the probe.  Quick sort's 
+		 * pivot is the last element, so presorted or duplicate heavy inputs are costed as quadratic.  
+		 * The parallel engines divide their work by the parallelism of the common pool, and are only 
+		 * considered once every worker would get {@link Sorter#SAMPLE_SORT_MIN} elements.
+		 * <br>
+		 * <br>Units are turned into nanoseconds per element type from the averages in {@link Sorter#totals}: 
+		 * the recorded run of an engine closest in n gives its nanoseconds per unit, and engines not yet 
+		 * run on the type take the median of those that have been.  Before anything is recorded every 
+		 * unit counts as one nanosecond.  The cheapest engine is chosen, and every decision is committed 
+		 * as a {@link PlanEvent} with the probe and the cost of every candidate.
+		 * 
+		 * @author Alex Feaser
+		 */
+		private static final class AutoPlanner {
+			private static final int SAMPLE = 128;
+			private static final int SKEW_CELLS = 8;
+			
+			/**
+			 * Estimated shape of an input array
+			 */
+			private static final class Probe {
+				private int n;
+				private Type type;
+				private double descents = 0.5;
+				private double inversions = 0.5;
+				private double distinct = 1;
+				private long range = -1;
+				private double skew = 1;
+			}
+			
+			private AutoPlanner() {}
+			
+			/**
+			 * Choose the engine for argument array
+			 * 
+			 * @param <E>
+			 * @param array
+			 * @param k rank to select, or -1 to sort
+			 * @return a full sort if k is -1, otherwise a selection
+			 */
+			private static <E extends Comparable<? super E>> Sort plan(E[] array, int k) {
+				PlanEvent event = new PlanEvent();
+				event.begin();
+				final Probe probe = probe(array);
+				final int workers = workers(probe.n);
+				final Sort[] candidates = (k == -1)
+						? new Sort[] { Sort.INSERTION, Sort.QUICK, Sort.MERGE, Sort.HEAP, Sort.CACHE_MERGE, Sort.MT_MERGE, Sort.SAMPLE, Sort.COUNTING, Sort.BUCKET }
+						: new Sort[] { Sort.QUICK_K, Sort.MERGE_K, Sort.HEAP_K, Sort.MEDIAN_OF_MEDIANS, Sort.CACHE_MERGE_K, Sort.MT_MERGE_K, Sort.SAMPLE_K, Sort.COUNTING_K, Sort.BUCKET_K };
+				final Map<Sort, Double> rates = rates(probe.type, probe.n);
+				final double fallback = median(rates.values());
+				
+				Sort best = null;
+				double bestCost = Double.POSITIVE_INFINITY;
+				StringBuilder costs = new StringBuilder();
+				for (Sort sort : candidates) {
+					final double units = units(sort, probe, k, workers);
+					if (Double.isNaN(units))
+						continue;
+					final Double rate = rates.get(sort);
+					final double cost = units * ((rate != null) ? rate : fallback);
+					costs.append(String.format("%s=%.3g%s ", sort, cost, (rate != null) ? "" : "*"));
+					if (cost < bestCost) {
+						best = sort;
+						bestCost = cost;
+					}
 				}
+				event.end();
+				if (event.shouldCommit()) {
+					event.sort = String.valueOf(best);
+					event.type = String.valueOf(probe.type);
+					event.n = probe.n;
+					event.k = k;
+					event.descents = probe.descents;
+					event.inversions = probe.inversions;
+					event.distinct = probe.distinct;
+					event.range = probe.range;
+					event.skew = probe.skew;
+					event.workers = workers;
+					event.calibrated = !rates.isEmpty();
+					event.predicted = Math.round(bestCost);
+					event.candidates = costs.toString().trim();
+					event.commit();
+				}
+				return best;
 			}
 			
 			/**
-			 * Merge argument arrays left and right into argument array arr
+			 * Estimate the shape of argument array from a sample of its elements.  The work is counted 
+			 * in the tracker of the calling thread.
 			 * 
-			 * @param left
-			 * @param right
-			 * @param arr
+			 * @param <E>
+			 * @param array
 			 * @return
 			 */
-			private T[] merge(T[] left, T[] right, T[] arr) {
-				return Sorter.merge(left, right, arr);
+			@SuppressWarnings("unchecked")
+			private static <E extends Comparable<? super E>> Probe probe(E[] array) {
+				SortStats tracker = tracker();
+				final Probe probe = new Probe();
+				final int n = probe.n = array.length;
+				final Class<?> component = array.getClass().getComponentType();
+				for (Type type : Type.values())
+					if (newArray(type).getClass().getComponentType() == component)
+						probe.type = type;
+				if (n < 2)
+					return probe;
+				
+				final int s = Math.min(SAMPLE, n - 1);
+				final SplittableRandom rand = new SplittableRandom(n);
+				int descents = 0, inversions = 0;
+				final E[] sample = (E[]) new Comparable[s];
+				for (int t = 0; t < s; ++t) {
+					final int i = (int) ((long) t * (n - 1) / s);
+					descents += (array[i].compareTo(array[i + 1]) > 0) ? 1 : 0;
+					final int a = rand.nextInt(n), b = rand.nextInt(n);
+					inversions += (a != b && (a < b) == (array[a].compareTo(array[b]) > 0)) ? 1 : 0;
+					sample[t] = array[a];
+				}
+				probe.descents = (double) descents / s;
+				probe.inversions = (double) inversions / s;
+				Arrays.sort(sample);
+				int distinct = 1;
+				for (int t = 1; t < s; ++t)
+					distinct += (sample[t].compareTo(sample[t - 1]) != 0) ? 1 : 0;
+				probe.distinct = (double) distinct / s;
+				tracker.arrayAccesses += 5L * s;
+				tracker.comparisons += 2L * s + (long) s * (32 - Integer.numberOfLeadingZeros(s));
+				
+				final ToLongFunction<E> integral = countingValue(component);
+				if (integral != null)
+					probe.range = integral.applyAsLong(sample[s - 1]) - integral.applyAsLong(sample[0]) + 1;
+				final ToDoubleFunction<E> real = bucketValue(component);
+				if (real != null) {
+					int hi = s;
+					while (hi > 0 && Double.isNaN(real.applyAsDouble(sample[hi - 1])))
+						--hi;
+					final double min = (hi > 0) ? real.applyAsDouble(sample[0]) : 0, span = (hi > 0) ? real.applyAsDouble(sample[hi - 1]) - min : 0;
+					if (span > 0 && !Double.isInfinite(span)) {
+						final int[] cells = new int[SKEW_CELLS];
+						for (int t = 0; t < hi; ++t)
+							cells[Math.min(SKEW_CELLS - 1, (int) ((real.applyAsDouble(sample[t]) - min) / span * SKEW_CELLS))]++;
+						probe.skew = (double) Arrays.stream(cells).max().getAsInt() * SKEW_CELLS / hi;
+					} else
+						probe.skew = SKEW_CELLS;
+				}
+				return probe;
+			}
+			
+			/**
+			 * Modeled work of argument engine on an input of argument shape
+			 * 
+			 * @param sort
+			 * @param probe
+			 * @param k rank to select, or -1 to sort
+			 * @param workers parallelism available to the parallel engines
+			 * @return work units, or NaN if the engine does not apply
+			 */
+			private static double units(Sort sort, Probe probe, int k, int workers) {
+				final double n = Math.max(probe.n, 1), lg = Math.log(Math.max(n, 2)) / Math.log(2);
+				final double presorted = Math.abs(1 - 2 * probe.inversions);
+				final double quadratic = (presorted > 0.8 || probe.distinct < 0.9) ? Math.max(presorted, 1 - probe.distinct) / 2 : 0;
+				final boolean parallel = workers > 1;
+				final boolean integral = probe.range > 0 && probe.range <= COUNTING_MAX_RANGE && probe.range <= (long) countingRangeFactor * n;
+				final boolean real = probe.type == Type.FLOATS || probe.type == Type.DOUBLES;
+				final double bucketed = 4 * n * probe.skew + ((probe.skew > BUCKET_LOAD) ? n * lg : 0);
+				switch (sort) {
+				case INSERTION:
+					return n * lg + probe.inversions * n * n / 2;
+				case QUICK:
+					return 1.2 * n * lg + quadratic * n * n;
+				case MERGE:
+				case MERGE_K:
+					return 1.1 * n * lg;
+				case HEAP:
+					return 2.6 * n * lg;
+				case CACHE_MERGE:
+				case CACHE_MERGE_K:
+					return (n <= cacheBlock) ? Double.NaN : n * lg;
+				case MT_MERGE:
+				case MT_MERGE_K:
+					return parallel ? 1.1 * n * lg / workers + n : Double.NaN;
+				case SAMPLE:
+					return parallel ? 1.1 * n * lg / workers + 3 * n : Double.NaN;
+				case COUNTING:
+					return integral ? 3 * n + probe.range : Double.NaN;
+				case BUCKET:
+				case BUCKET_K:
+					return real ? bucketed : Double.NaN;
+				case QUICK_K:
+					return 2 * n + quadratic * n * n;
+				case HEAP_K:
+					return n + 2.6 * (n - k + 1) * lg;
+				case MEDIAN_OF_MEDIANS:
+					// Keys equal to its pivot stay in the range it recurses on, so repeated keys recurse O(n) deep
+					return (probe.distinct < 0.9) ? Double.NaN : 10 * n;
+				case SAMPLE_K:
+					return parallel ? 8 * n / workers + 3 * n : Double.NaN;
+				case COUNTING_K:
+					return integral ? 2 * n + probe.range : Double.NaN;
+				default:
+					return Double.NaN;
+				}
+			}
+			
+			/**
+			 * Nanoseconds per work unit of each engine already run on argument type, from its recorded 
+			 * average closest in n to argument n.  Recorded runs are costed as uniform random distinct 
+			 * inputs, which is what the generator produces.
+			 * 
+			 * @param type
+			 * @param n
+			 * @return
+			 */
+			private static Map<Sort, Double> rates(Type type, int n) {
+				Map<Sort, Double> rates = new EnumMap<>(Sort.class), distances = new EnumMap<>(Sort.class);
+				Map<Integer, List<SortStats>> byN = (type == null) ? null : totals.get(type);
+				if (byN == null)
+					return rates;
+				for (List<SortStats> recorded : byN.values()) {
+					List<SortStats> list;
+					synchronized (recorded) {
+						list = new ArrayList<>(recorded);
+					}
+					for (SortStats s : list) {
+						if (s.currentSort == null || s.elapsedTime <= 0 || s.n < 2)
+							continue;
+						final double distance = Math.abs(Math.log((double) s.n / Math.max(n, 1)));
+						if (distance >= distances.getOrDefault(s.currentSort, Double.POSITIVE_INFINITY))
+							continue;
+						Probe uniform = new Probe();
+						uniform.n = s.n;
+						uniform.type = type;
+						uniform.range = s.n;
+						final double units = units(s.currentSort, uniform, (s.n + 1) >> 1, workers(s.n));
+						if (Double.isNaN(units))
+							continue;
+						distances.put(s.currentSort, distance);
+						rates.put(s.currentSort, s.elapsedTime / units);
+					}
+				}
+				return rates;
+			}
+			
+			/**
+			 * @param n
+			 * @return parallelism the parallel engines would get for an array of length n
+			 */
+			private static int workers(int n) {
+				return Math.max(1, Math.min(ForkJoinPool.commonPool().getParallelism(), n / SAMPLE_SORT_MIN));
+			}
+			
+			/**
+			 * @param values
+			 * @return median of argument values, or 1 if there are none
+			 */
+			private static double median(Collection<Double> values) {
+				if (values.isEmpty())
+					return 1;
+				double[] sorted = values.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+				return sorted[sorted.length >> 1];
+			}
+		}
+		
+		/**
+		 * In-process sort and select service for callers on many threads.  Requests are queued and 
+		 * served by a fixed pool of carrier threads.  A carrier takes one request and drains up to 
+		 * {@link #BATCH_MAX} - 1 more, then runs the batch grouped by element class, so many small 
+		 * requests share one wake up and same type requests run back to back.
+		 * <br>
+		 * <br>The queue is bounded: once {@link #capacity} requests are waiting, submitting blocks the 
+		 * caller until a carrier catches up.  Requests of at least {@link #PARALLEL_MIN} elements run on 
+		 * the parallel sample sort, smaller ones on the sequential merge sort and its small range kernels.  
+		 * Large requests are never batched: a carrier that takes one runs it on its own, and one drained 
+		 * along with small requests runs after them, so small requests never wait behind a large sort 
+		 * in their own batch.  Every carrier counts into its own tracker, so the service is safe to share.  
+		 * A request that throws, including an Error, completes exceptionally and the carrier moves on.  
+		 * Queue wait, end to end latency and batch size are kept per request and reported by 
+		 * {@link #metrics()}.
+		 * 
+		 * @author Alex Feaser
+		 */
+		public static final class SortService implements AutoCloseable {
+			public static final int BATCH_MAX = 64;
+			public static final int PARALLEL_MIN = SAMPLE_SORT_MIN;
+			private static final long POLL_MILLIS = 10;
+			private final BlockingQueue<Request> queue;
+			private final ExecutorService carriers;
+			private final int capacity;
+			private final Distribution waitTimes = new Distribution();
+			private final Distribution latencies = new Distribution();
+			private final Distribution batchSizes = new Distribution();
+			private volatile boolean closed;
+			
+			/**
+			 * A sort (k = -1) or select request and its pending result
+			 */
+			private static final class Request {
+				private final Comparable<?>[] array;
+				private final int k;
+				private final long enqueued = System.nanoTime();
+				private final CompletableFuture<Object> result = new CompletableFuture<>();
+				
+				private Request(Comparable<?>[] array, int k) {
+					this.array = array;
+					this.k = k;
+				}
+			}
+			
+			/**
+			 * @param carriers number of carrier threads
+			 * @param capacity number of waiting requests after which submitting blocks
+			 */
+			public SortService(int carriers, int capacity) {
+				this.capacity = capacity;
+				this.queue = new ArrayBlockingQueue<>(capacity);
+				this.carriers = Executors.newFixedThreadPool(carriers, r -> {
+					Thread t = new Thread(r, "sort-service");
+					t.setDaemon(true);
+					return t;
+				});
+				for (int i = 0; i < carriers; ++i)
+					this.carriers.execute(this::serve);
+			}
+			
+			/**
+			 * Sort argument array in place
+			 * 
+			 * @param <E>
+			 * @param array
+			 * @return completes with the sorted array
+			 */
+			@SuppressWarnings("unchecked")
+			public <E extends Comparable<? super E>> CompletableFuture<E[]> sort(E[] array) {
+				return (CompletableFuture<E[]>) (CompletableFuture<?>) submit(new Request(array, -1));
+			}
+			
+			/**
+			 * Find the kth smallest element of argument array, which may be reordered
+			 * 
+			 * @param <E>
+			 * @param array
+			 * @param k 1 based rank
+			 * @return completes with the kth smallest element
+			 */
+			@SuppressWarnings("unchecked")
+			public <E extends Comparable<? super E>> CompletableFuture<E> select(E[] array, int k) {
+				if (k < 1 || k > array.length)
+					throw new IllegalArgumentException(String.format("len: %d, k: %d", array.length, k));
+				return (CompletableFuture<E>) (CompletableFuture<?>) submit(new Request(array, k));
+			}
+			
+			/**
+			 * Queue argument request, blocking while the queue is full
+			 * 
+			 * @param request
+			 * @return
+			 */
+			private CompletableFuture<Object> submit(Request request) {
+				if (closed)
+					throw new IllegalStateException("Sort service is closed");
+				try {
+					queue.put(request);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					request.result.completeExceptionally(e);
+				}
+				// Closed while queuing: the carriers may already have stopped, so take it back unless one took it
+				if (closed && queue.remove(request))
+					request.result.completeExceptionally(new IllegalStateException("Sort service is closed"));
+				return request.result;
+			}
+			
+			/**
+			 * Carrier loop: take a batch, run it, repeat until closed and drained.  Large requests are 
+			 * taken out of the batch and run on their own after it.
+			 */
+			private void serve() {
+				List<Request> batch = new ArrayList<>(BATCH_MAX), large = new ArrayList<>();
+				try {
+					while (true) {
+						Request first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+						if (first == null) {
+							if (closed)
+								return;
+							continue;
+						}
+						if (first.array.length >= PARALLEL_MIN) {
+							runBatch(List.of(first));
+							continue;
+						}
+						batch.add(first);
+						queue.drainTo(batch, BATCH_MAX - 1);
+						for (Iterator<Request> it = batch.iterator(); it.hasNext(); ) {
+							Request request = it.next();
+							if (request.array.length >= PARALLEL_MIN) {
+								large.add(request);
+								it.remove();
+							}
+						}
+						batch.sort(Comparator.comparing(r -> r.array.getClass().getName()));
+						runBatch(batch);
+						for (Request request : large)
+							runBatch(List.of(request));
+						batch.clear();
+						large.clear();
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			
+			/**
+			 * Record the size of argument batch and run its requests in order
+			 * 
+			 * @param batch
+			 */
+			private void runBatch(List<Request> batch) {
+				synchronized (batchSizes) {
+					batchSizes.add(batch.size());
+				}
+				for (Request request : batch)
+					execute(request);
+			}
+			
+			/**
+			 * Run a single request and record its latency
+			 * 
+			 * @param request
+			 */
+			@SuppressWarnings("unchecked")
+			private <E extends Comparable<? super E>> void execute(Request request) {
+				final long start = System.nanoTime();
+				final E[] array = (E[]) request.array;
+				final boolean parallel = array.length >= PARALLEL_MIN;
+				try {
+					if (request.k == -1)
+						request.result.complete(Sorter.<E>sorterFor(parallel ? Sort.SAMPLE : Sort.MERGE).apply(array));
+					else
+						request.result.complete(Sorter.<E>selectorFor(parallel ? Sort.SAMPLE_K : Sort.MERGE_K).apply(array, request.k));
+				} catch (Throwable e) {
+					request.result.completeExceptionally(e);
+				}
+				final long end = System.nanoTime();
+				synchronized (latencies) {
+					waitTimes.add(start - request.enqueued);
+					latencies.add(end - request.enqueued);
+				}
+			}
+			
+			/**
+			 * Format the per request queue wait and latency distributions and the batch sizes
+			 * 
+			 * @return
+			 */
+			public String metrics() {
+				StringBuilder sb = new StringBuilder(String.format("%16s", ""));
+				for (String column : new String[] { "Count", "Mean", "Min" })
+					sb.append(String.format("%6s%-16s%2s", "", column, ""));
+				for (String column : Distribution.PERCENTILE_NAMES)
+					sb.append(String.format("%6s%-16s%2s", "", column, ""));
+				sb.append(String.format("%6s%-16s%2s%n", "", "Max", ""));
+				synchronized (latencies) {
+					sb.append(metricsRow("Queue wait:", waitTimes, SortStats::formatElapsed));
+					sb.append(metricsRow("Latency:", latencies, SortStats::formatElapsed));
+				}
+				synchronized (batchSizes) {
+					sb.append(metricsRow("Batch size:", batchSizes, Long::toString));
+				}
+				return sb.append(String.format("%16s%6s%d / %d%n", "Queued:", "", queue.size(), capacity)).toString();
+			}
+			
+			private static String metricsRow(String label, Distribution d, LongFunction<String> format) {
+				StringBuilder sb = new StringBuilder(String.format("%16s", label));
+				sb.append(String.format("%6s%-16d%2s", "", d.count, ""));
+				sb.append(String.format("%6s%-16s%2s", "", format.apply(Math.round(d.mean())), ""));
+				sb.append(String.format("%6s%-16s%2s", "", format.apply((d.count == 0) ? 0 : d.min), ""));
+				for (long p : d.percentiles())
+					sb.append(String.format("%6s%-16s%2s", "", format.apply(p), ""));
+				return sb.append(String.format("%6s%-16s%2s%n", "", format.apply((d.count == 0) ? 0 : d.max), "")).toString();
+			}
+			
+			/**
+			 * Stop accepting requests, finish the queued ones and stop the carriers.  Requests still 
+			 * queued once the carriers have stopped, because they raced with closing or the wait was 
+			 * interrupted, complete exceptionally.
+			 */
+			@Override
+			public void close() {
+				closed = true;
+				carriers.shutdown();
+				try {
+					carriers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+				} catch (InterruptedException e) {
+					carriers.shutdownNow();
+					Thread.currentThread().interrupt();
+				}
+				List<Request> left = new ArrayList<>();
+				queue.drainTo(left);
+				for (Request request : left)
+					request.result.completeExceptionally(new IllegalStateException("Sort service is closed"));
 			}
+		}
 
+		/**
+		 * Streaming summary of one statistic across trials.  Keeps a running mean and variance 
+		 * (Welford), the minimum and maximum, and a log-bucketed histogram for percentiles, so memory 
+		 * does not grow with the number of trials.
+		 * <br>
+		 * <br>The histogram splits each power of two into {@link #SUB_BUCKETS} linear buckets, 
+		 * bounding the relative error of a reported percentile to about 1 / {@link #SUB_BUCKETS}.
+		 * 
+		 * @author Alex Feaser
+		 */
+		private static class Distribution {
+			private static final int SUB_BITS = 5;
+			private static final int SUB_BUCKETS = 1 << SUB_BITS;
+			private static final double[] PERCENTILES = { 0.5, 0.9, 0.99, 0.999 };
+			private static final String[] PERCENTILE_NAMES = { "p50", "p90", "p99", "p99.9" };
+			private final long[] buckets = new long[SUB_BUCKETS * (64 - SUB_BITS)];
+			private long count;
+			private double mean;
+			private double m2;
+			private long min;
+			private long max;
+			
+			private Distribution() {
+				clear();
+			}
+			
+			private void clear() {
+				Arrays.fill(buckets, 0);
+				count = 0;
+				mean = 0;
+				m2 = 0;
+				min = Long.MAX_VALUE;
+				max = Long.MIN_VALUE;
+			}
+			
 			/**
-			 * Merge argument arrays left and right into argument array arr up to the kth smallest element
+			 * Add a single non-negative sample
+			 * 
+			 * @param value
+			 */
+			private void add(long value) {
+				double delta = value - mean;
+				mean += delta / ++count;
+				m2 += delta * (value - mean);
+				min = Math.min(min, value);
+				max = Math.max(max, value);
+				buckets[bucket(Math.max(0, value))]++;
+			}
+			
+			private double mean() { return mean; }
+			private double variance() { return (count < 2) ? 0 : m2 / (count - 1); }
+			private double stdDev() { return Math.sqrt(variance()); }
+			
+			/**
+			 * Half width of the 95% confidence interval of the mean
 			 * 
-			 * @param left
-			 * @param right
-			 * @param arr
-			 * @param k
 			 * @return
 			 */
-			private T[] mergeK(T[] left, T[] right, T[] arr, int k) {
-				thread = 0;
-				return Sorter.mergeK(left, right, arr, k);
+			private double ci95() {
+				return (count < 2) ? 0 : 1.96 * Math.sqrt(variance() / count);
+			}
+			
+			/**
+			 * Approximate value below which argument fraction of samples fall
+			 * 
+			 * @param p
+			 * @return
+			 */
+			private long percentile(double p) {
+				if (count == 0)
+					return 0;
+				long rank = Math.max(1, (long) Math.ceil(p * count)), seen = 0;
+				for (int i = 0; i < buckets.length; ++i) {
+					seen += buckets[i];
+					if (seen >= rank)
+						return Math.max(min, Math.min(max, midpoint(i)));
+				}
+				return max;
+			}
+			
+			private long[] percentiles() {
+				long[] res = new long[PERCENTILES.length];
+				for (int i = 0; i < res.length; ++i)
+					res[i] = percentile(PERCENTILES[i]);
+				return res;
+			}
+			
+			/**
+			 * Index of the bucket holding argument value.  Values below {@link #SUB_BUCKETS} get a bucket 
+			 * each; above that, the leading {@link #SUB_BITS} + 1 bits select the bucket.
+			 */
+			private static int bucket(long value) {
+				if (value < SUB_BUCKETS)
+					return (int) value;
+				int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+				return SUB_BUCKETS + shift * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
 			}
 			
+			private static long midpoint(int bucket) {
+				if (bucket < SUB_BUCKETS)
+					return bucket;
+				int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+				long m = (bucket - SUB_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+				return (m << shift) + ((1L << shift) >> 1);
+			}
 		}
 
 		/**
@@ -1253,87 +7514,264 @@ public interface UsesSorter {
 		 */
 		private static class SortStats {
 			protected long arrayAccesses;
+			protected long streamingAccesses;
 			protected long swaps;
 			protected long comparisons;
+			protected double loadImbalance;
+			protected long bytesAllocated;
+			protected long peakAuxBytes;
 			protected long startTime;
 			protected long elapsedTime;
 			protected int n;
+			protected int samples;
+			protected double accessesVariance;
+			protected double comparisonsVariance;
+			protected double elapsedVariance;
+			protected long elapsedMin;
+			protected long elapsedMax;
+			protected long[] elapsedPercentiles = new long[Distribution.PERCENTILES.length];
+			protected String distribution = DISTRIBUTION;
 			protected Comparable<?> resultVal;
 			private Sort currentSort;
 			private Type currentType;
+			private int trials = NUM_TRIALS;
+			private Distribution accessStats;
+			private Distribution cacheStats;
+			private Distribution streamingStats;
+			private Distribution swapStats;
+			private Distribution comparisonStats;
+			private Distribution imbalanceStats;
+			private Distribution allocationStats;
+			private Distribution auxStats;
+			private Distribution elapsedStats;
+			private long auxBytes;
+			private long[] allocationThreads;
+			private long[] allocationBase;
+			private long allocationStart;
 			
 			public SortStats() {}
 			
 			private SortStats(SortStats s) {
 				arrayAccesses = s.arrayAccesses;
+				streamingAccesses = s.streamingAccesses;
 				swaps = s.swaps;
 				comparisons = s.comparisons;
+				loadImbalance = s.loadImbalance;
+				bytesAllocated = s.bytesAllocated;
+				peakAuxBytes = s.peakAuxBytes;
 				startTime = s.startTime;
 				elapsedTime = s.elapsedTime;
 				resultVal = s.resultVal;
 				currentSort = s.currentSort;
 				currentType = s.currentType;
 				n = s.n;
+				samples = s.samples;
+				accessesVariance = s.accessesVariance;
+				comparisonsVariance = s.comparisonsVariance;
+				elapsedVariance = s.elapsedVariance;
+				elapsedMin = s.elapsedMin;
+				elapsedMax = s.elapsedMax;
+				elapsedPercentiles = s.elapsedPercentiles.clone();
+				distribution = s.distribution;
+			}
+			
+			/**
+			 * Add the counts of argument tracker to this one
+			 * 
+			 * @param s
+			 */
+			private void add(SortStats s) {
+				arrayAccesses += s.arrayAccesses;
+				streamingAccesses += s.streamingAccesses;
+				swaps += s.swaps;
+				comparisons += s.comparisons;
 			}
 			
 			private void startTimer() { startTime = System.nanoTime(); }
 			private void endTimer() { elapsedTime = System.nanoTime() - startTime; }
 			
 			/**
-			 * Prepare tracker prior to each sort
+			 * Account argument bytes of auxiliary space taken by an algorithm
+			 * 
+			 * @param bytes
+			 */
+			private void allocate(long bytes) {
+				auxBytes += bytes;
+				peakAuxBytes = Math.max(peakAuxBytes, auxBytes);
+			}
+			
+			/**
+			 * Account argument bytes of auxiliary space given back by an algorithm
+			 * 
+			 * @param bytes
+			 */
+			private void release(long bytes) {
+				auxBytes -= bytes;
+			}
+			
+			/**
+			 * Remember the bytes allocated so far by this thread and by the workers of the common 
+			 * fork/join pool.  Workers are found by name on every trial, since the pool starts them 
+			 * lazily.  Configurations running concurrently on the pool count into each other.
+			 */
+			private void startAllocation() {
+				if (!threadBean.isThreadAllocatedMemorySupported() || !threadBean.isThreadAllocatedMemoryEnabled()) {
+					allocationThreads = null;
+					return;
+				}
+				final long self = Thread.currentThread().getId();
+				final long[] ids = threadBean.getAllThreadIds();
+				final ThreadInfo[] infos = threadBean.getThreadInfo(ids);
+				allocationThreads = IntStream.range(0, ids.length)
+						.filter(i -> ids[i] != self && infos[i] != null && infos[i].getThreadName().startsWith("ForkJoinPool.commonPool-worker"))
+						.mapToLong(i -> ids[i]).toArray();
+				allocationBase = threadBean.getThreadAllocatedBytes(allocationThreads);
+				allocationStart = threadBean.getCurrentThreadAllocatedBytes();	// Last, so the snapshots above are not counted
+			}
+			
+			/**
+			 * Set the bytes allocated since {@link #startAllocation()}
+			 */
+			private void endAllocation() {
+				if (allocationThreads == null)
+					return;
+				long total = threadBean.getCurrentThreadAllocatedBytes() - allocationStart;
+				final long[] now = threadBean.getThreadAllocatedBytes(allocationThreads);
+				for (int i = 0; i < now.length; ++i)
+					if (now[i] >= 0 && allocationBase[i] >= 0)
+						total += now[i] - allocationBase[i];
+				bytesAllocated = total;
+			}
+			
+			/**
+			 * Clear the per-configuration distributions prior to the first trial
+			 */
+			private void prepTrials() {
+				if (elapsedStats == null) {
+					accessStats = new Distribution();
+					cacheStats = new Distribution();
+					streamingStats = new Distribution();
+					swapStats = new Distribution();
+					comparisonStats = new Distribution();
+					imbalanceStats = new Distribution();
+					allocationStats = new Distribution();
+					auxStats = new Distribution();
+					elapsedStats = new Distribution();
+				}
+				accessStats.clear();
+				cacheStats.clear();
+				streamingStats.clear();
+				swapStats.clear();
+				comparisonStats.clear();
+				imbalanceStats.clear();
+				allocationStats.clear();
+				auxStats.clear();
+				elapsedStats.clear();
+			}
+			
+			/**
+			 * Prepare tracker prior to each sort.  Takes the allocation snapshot, then starts the timer; 
+			 * after the sort, call {@link #endTimer()} and only then {@link #endAllocation()}, so neither 
+			 * the timer nor a {@link SortEvent} opened after this covers the thread snapshots.
 			 */
-			private void prep() {
+			private void prep(int len) {
 				arrayAccesses = 0;
+				streamingAccesses = 0;
 				swaps = 0;
 				comparisons = 0;
+				loadImbalance = 0;
+				bytesAllocated = 0;
+				auxBytes = 0;
+				peakAuxBytes = 0;
 				elapsedTime = 0;
-				n = NEW_ARRAY_LEN;
+				n = len;
 				resultVal = null;
+				startAllocation();
 				startTimer();
 			}
 			
 			/**
-			 * Display, then clear results
+			 * Fold the results of the trial just finished into the distributions
+			 */
+			private void accumulate() {
+				accessStats.add(arrayAccesses);
+				cacheStats.add(arrayAccesses - streamingAccesses);
+				streamingStats.add(streamingAccesses);
+				swapStats.add(swaps);
+				comparisonStats.add(comparisons);
+				imbalanceStats.add(Math.round(loadImbalance * 1000));
+				allocationStats.add(bytesAllocated);
+				auxStats.add(peakAuxBytes);
+				elapsedStats.add(elapsedTime);
+			}
+			
+			/**
+			 * Record the summary of all trials
 			 */
 			private void end(Type type) {
 //				System.out.println(outputTrialResults());
-				HashMap<Integer, List<SortStats>> map = totals.getOrDefault(type, new HashMap<>());
-				List<SortStats> list = map.getOrDefault(NEW_ARRAY_LEN, new ArrayList<>());
-				list.add(trialResults.get(NUM_TRIALS));
-				map.put(NEW_ARRAY_LEN, list);
-				totals.put(type, map);
-//				trialResults.clear();
+				record(type, averageOfTrials());
+			}
+			
+			/**
+			 * Add argument averaged results to {@link Sorter#totals}.  Safe to call from any thread.
+			 * Results of calls made without a current type are not recorded.
+			 * 
+			 * @param type
+			 * @param average
+			 */
+			private static void record(Type type, SortStats average) {
+				if (type == null)
+					return;
+				totals.computeIfAbsent(type, t -> new ConcurrentHashMap<>())
+					.computeIfAbsent(average.n, n -> Collections.synchronizedList(new ArrayList<>()))
+					.add(average);
 			}
 			
 			/**
-			 * Display formatted results from all trials including averages
+			 * Display formatted distribution of all trials
 			 */
 			public String outputTrialResults() {
 				StringBuilder sb = new StringBuilder();
-				int len = trialResults.size() - 1;
-				int x = (int)Math.floor(Math.log10(len)) + 1;
-				sb.append(String.format("%6s%-16s%2s", "", "Average", ""));
-				for (int i = 1; i <= len; ++i)
-					sb.append(String.format("%6sTrial %0" + x + "d%" + (10 - x + 2) + "s", "", i, ""));
-				sb.append(String.format("\n\n%16s%6s%-16d%2s", "Array accesses:", "", 
-						trialResults.get(len).arrayAccesses, ""));
-				for (int i = 0; i < len; ++i)
-					sb.append(String.format("%6s%-16d%2s", "", trialResults.get(i).arrayAccesses, ""));
-				sb.append(String.format("\n%16s%6s%-16d%2s", "Swaps:", "", 
-						trialResults.get(len).swaps, ""));
-				for (int i = 0; i < len; ++i)
-					sb.append(String.format("%6s%-16d%2s", "", trialResults.get(i).swaps, ""));
-				sb.append(String.format("\n%16s%6s%-16d%2s", "Comparisons:", "", 
-						trialResults.get(len).comparisons, ""));
-				for (int i = 0; i < len; ++i)
-					sb.append(String.format("%6s%-16d%2s", "", trialResults.get(i).comparisons, ""));
-				sb.append(String.format("\n%16s%6s%-16s%2s", "Elapsed time:", "", 
-						formatElapsed(trialResults.get(len).elapsedTime), ""));
-				for (int i = 0; i < len; ++i)
-					sb.append(String.format("%6s%-16s%2s", "", formatElapsed(trialResults.get(i).elapsedTime), ""));
+				sb.append(String.format("%6s%-16s%2s", "", String.format("Mean (%d trials)", elapsedStats.count), ""));
+				for (String column : new String[] { "Std dev", "95% CI (+/-)", "Min" })
+					sb.append(String.format("%6s%-16s%2s", "", column, ""));
+				for (String column : Distribution.PERCENTILE_NAMES)
+					sb.append(String.format("%6s%-16s%2s", "", column, ""));
+				sb.append(String.format("%6s%-16s%2s\n", "", "Max", ""));
+				sb.append(distributionRow("Array accesses:", accessStats, Long::toString));
+				sb.append(distributionRow("In cache:", cacheStats, Long::toString));
+				sb.append(distributionRow("Streaming:", streamingStats, Long::toString));
+				sb.append(distributionRow("Swaps:", swapStats, Long::toString));
+				sb.append(distributionRow("Comparisons:", comparisonStats, Long::toString));
+				if (imbalanceStats.max > 0)
+					sb.append(distributionRow("Imbalance:", imbalanceStats, v -> String.format("%.3f", v / 1000.0)));
+				sb.append(distributionRow("Allocated:", allocationStats, SortStats::formatBytes));
+				sb.append(distributionRow("Peak aux:", auxStats, SortStats::formatBytes));
+				sb.append(distributionRow("Elapsed time:", elapsedStats, SortStats::formatElapsed));
 				return sb.append("\n").toString();
 			}
 			
+			/**
+			 * Format a single row of {@link #outputTrialResults()}
+			 * 
+			 * @param label
+			 * @param d
+			 * @param format
+			 * @return
+			 */
+			private static String distributionRow(String label, Distribution d, LongFunction<String> format) {
+				StringBuilder sb = new StringBuilder(String.format("\n%16s", label));
+				List<Long> values = new ArrayList<>(Arrays.asList(Math.round(d.mean()), Math.round(d.stdDev()), 
+						Math.round(d.ci95()), d.min));
+				for (long p : d.percentiles())
+					values.add(p);
+				values.add(d.max);
+				for (long value : values)
+					sb.append(String.format("%6s%-16s%2s", "", format.apply(value), ""));
+				return sb.toString();
+			}
+			
 			/**
 			 * Format the elapsed time into a readable string
 			 * 
@@ -1345,6 +7783,19 @@ public interface UsesSorter {
 				long nanos = elapsed % 1000000000;
 				return String.format("%d.%09ds", seconds, nanos);
 			}
+			
+			/**
+			 * Format a number of bytes into a readable string
+			 * 
+			 * @param bytes
+			 * @return
+			 */
+			public static String formatBytes(long bytes) {
+				if (bytes < 1024)
+					return String.format("%dB", bytes);
+				final int unit = Math.min(3, (63 - Long.numberOfLeadingZeros(bytes)) / 10);
+				return String.format("%.1f%s", bytes / (double) (1L << (10 * unit)), new String[] { "B", "KiB", "MiB", "GiB" }[unit]);
+			}
 
 			/**
 			 * Track argument sorting function across a number of trials
@@ -1355,32 +7806,49 @@ public interface UsesSorter {
 			 * @return sorted array
 			 */
 			private <E extends Comparable<? super E>> E[] track(Function<E[], E[]> f, E[] array) {
-				trialResults.clear();
+				prepTrials();
 				E[] res = null;
-				for (int i = 0; i < NUM_TRIALS; ++i) {
-					E[] a = array.clone();
-					prep();
-					res = f.apply(a);
-					endTimer();
-					trialResults.add(new SortStats(tracker));
-					shuffle(array);
-				}
-				trialResults.add(averageOfTrials());
+				try (TrialPipeline<E> inputs = new TrialPipeline<>(array, trials)) {
+					for (int i = 0; i < trials; ++i) {
+						E[] a = inputs.take();
+						prep(a.length);
+						SortEvent event = new SortEvent();
+						event.begin();
+						res = f.apply(a);
+						endTimer();
+						event.finish(this);
+						endAllocation();
+						accumulate();
+						if (i < trials - 1)
+							inputs.recycle(a);	// The last trial's array is returned to the caller
+					}
+				}
 				end(currentType);
 				return res;
 			}
 			
 			/**
-			 * Return a SortStats object containing the averages of the results
+			 * Return a SortStats object containing the averages and spread of the results
 			 * 
 			 * @return
 			 */
 			private SortStats averageOfTrials() {
-				tracker.arrayAccesses = Math.round(trialResults.stream().mapToLong(s -> s.arrayAccesses).average().getAsDouble());
-				tracker.swaps = Math.round(trialResults.stream().mapToLong(s -> s.swaps).average().getAsDouble());
-				tracker.comparisons = Math.round(trialResults.stream().mapToLong(s -> s.comparisons).average().getAsDouble());
-				tracker.elapsedTime = Math.round(trialResults.stream().mapToLong(s -> s.elapsedTime).average().getAsDouble());
-				return new SortStats(tracker);
+				arrayAccesses = Math.round(accessStats.mean());
+				streamingAccesses = Math.round(streamingStats.mean());
+				swaps = Math.round(swapStats.mean());
+				comparisons = Math.round(comparisonStats.mean());
+				loadImbalance = imbalanceStats.mean() / 1000;
+				bytesAllocated = Math.round(allocationStats.mean());
+				peakAuxBytes = Math.round(auxStats.mean());
+				elapsedTime = Math.round(elapsedStats.mean());
+				samples = (int) elapsedStats.count;
+				accessesVariance = accessStats.variance();
+				comparisonsVariance = comparisonStats.variance();
+				elapsedVariance = elapsedStats.variance();
+				elapsedMin = elapsedStats.min;
+				elapsedMax = elapsedStats.max;
+				elapsedPercentiles = elapsedStats.percentiles();
+				return new SortStats(this);
 			}
 
 			/**
@@ -1393,17 +7861,22 @@ public interface UsesSorter {
 			 * @return kth smallest element
 			 */
 			private <E extends Comparable<? super E>> E trackK(BiFunction<E[], Integer, E> f, E[] array, int k) {
-				trialResults.clear();
+				prepTrials();
 				E val = null;
-				for (int i = 0; i < NUM_TRIALS; ++i) {
-					E[] a = array.clone();
-					prep();
-					val = (E) (resultVal = f.apply(a, k));
-					endTimer();
-					trialResults.add(new SortStats(tracker));
-					shuffle(array);
-				}
-				trialResults.add(averageOfTrials());
+				try (TrialPipeline<E> inputs = new TrialPipeline<>(array, trials)) {
+					for (int i = 0; i < trials; ++i) {
+						E[] a = inputs.take();
+						prep(a.length);
+						SortEvent event = new SortEvent();
+						event.begin();
+						val = (E) (resultVal = f.apply(a, k));
+						endTimer();
+						event.finish(this);
+						endAllocation();
+						accumulate();
+						inputs.recycle(a);
+					}
+				}
 				end(currentType);
 				return val;
 			}